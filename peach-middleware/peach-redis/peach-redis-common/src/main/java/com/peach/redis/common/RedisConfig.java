@@ -3,11 +3,12 @@
 package com.peach.redis.common;
 
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import com.peach.redis.constant.RedisConstant;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import com.peach.redis.serializer.PeachRedisSerializer;
+import com.peach.redis.serializer.RedisCodecProperties;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -19,21 +20,28 @@ import org.redisson.config.SentinelServersConfig;
 import org.redisson.config.SingleServerConfig;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisNode;
 import org.springframework.data.redis.connection.RedisPassword;
 import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import redis.clients.jedis.JedisPoolConfig;
 
@@ -52,11 +60,37 @@ import java.util.stream.IntStream;
 @Slf4j
 @Data
 @Configuration
+@AutoConfigureBefore(RedisAutoConfiguration.class)
+@EnableConfigurationProperties(RedisCodecProperties.class)
 public class RedisConfig<K, V> {
 
     @Value("${peach.redis.mode}")
     private String mode;
 
+    /**
+     * redis 客户端，jedis 或 lettuce
+     */
+    @Value("${peach.redis.client:jedis}")
+    private String client;
+
+    @Value("${peach.redis.lettuce.command-timeout:3000}")
+    private long lettuceCommandTimeout;
+
+    @Value("${peach.redis.lettuce.shutdown-timeout:100}")
+    private long lettuceShutdownTimeout;
+
+    /**
+     * 显式 pipeline 中每累积多少条命令写出一次，减少系统调用
+     */
+    @Value("${peach.redis.lettuce.pipeline-flush-size:256}")
+    private int lettucePipelineFlushSize;
+
+    /**
+     * 集群模式下定时刷新拓扑的间隔，另外在收到 MOVED/ASK 或重连时自动刷新
+     */
+    @Value("${peach.redis.lettuce.topology-refresh-period:30000}")
+    private long lettuceTopologyRefreshPeriod;
+
     @Value("${peach.redis.host}")
     private String host;
 
@@ -132,6 +166,7 @@ public class RedisConfig<K, V> {
 
 
     @Bean(name = "redisPoolConfigs")
+    @ConditionalOnProperty(name = "peach.redis.client", havingValue = RedisConstant.JEDIS, matchIfMissing = true)
     @ConditionalOnMissingBean(JedisPoolConfig.class)
     public JedisPoolConfig poolConfig() {
         JedisPoolConfig pool = new JedisPoolConfig();
@@ -148,6 +183,7 @@ public class RedisConfig<K, V> {
     }
 
     @Bean(name = "jedisConnectionFactory")
+    @ConditionalOnProperty(name = "peach.redis.client", havingValue = RedisConstant.JEDIS, matchIfMissing = true)
     @ConditionalOnMissingBean(JedisConnectionFactory.class)
     JedisConnectionFactory jedisConnectionFactory(
             @Qualifier("redisPoolConfigs") JedisPoolConfig jedisPoolConfig) {
@@ -183,18 +219,74 @@ public class RedisConfig<K, V> {
         return jedisConnectionFactory;
     }
 
+    /**
+     * lettuce 连接工厂，普通命令由所有线程共用一个连接(集群模式下每个节点一个)，并发的命令在连接上自动流水线发送，
+     * 不需要连接池，也不需要借出连接时的 PING；阻塞命令、事务与订阅由 lettuce 使用独立的连接
+     * @return
+     */
+    @Bean(name = "lettuceConnectionFactory")
+    @ConditionalOnProperty(name = "peach.redis.client", havingValue = RedisConstant.LETTUCE)
+    @ConditionalOnMissingBean(LettuceConnectionFactory.class)
+    LettuceConnectionFactory lettuceConnectionFactory() {
+        LettuceConnectionFactory lettuceConnectionFactory = null;
+        log.info("redis host:" + host);
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(lettuceCommandTimeout))
+                .shutdownTimeout(Duration.ofMillis(lettuceShutdownTimeout));
+        switch (mode) {
+            case RedisConstant.STANDALONE:
+                builder.clientOptions(ClientOptions.builder().autoReconnect(true).build());
+                lettuceConnectionFactory = new LettuceConnectionFactory(redisStandaloneConfiguration(), builder.build());
+                log.info("redis standalone mode with lettuce init success！");
+                break;
+            case RedisConstant.SENTINEL:
+                builder.clientOptions(ClientOptions.builder().autoReconnect(true).build());
+                lettuceConnectionFactory = new LettuceConnectionFactory(sentinelConfiguration(), builder.build());
+                log.info("redis sentinel mode with lettuce init success！");
+                break;
+            case RedisConstant.CLUSTER:
+                ClusterTopologyRefreshOptions refreshOptions = ClusterTopologyRefreshOptions.builder()
+                        .enablePeriodicRefresh(Duration.ofMillis(lettuceTopologyRefreshPeriod))
+                        .enableAllAdaptiveRefreshTriggers()
+                        .build();
+                builder.clientOptions(ClusterClientOptions.builder()
+                        .autoReconnect(true)
+                        .topologyRefreshOptions(refreshOptions)
+                        .build());
+                lettuceConnectionFactory = new LettuceConnectionFactory(redisClusterConfiguration(), builder.build());
+                log.info("redis cluster mode with lettuce init success！");
+                break;
+            default:
+                break;
+        }
+        if (lettuceConnectionFactory != null) {
+            lettuceConnectionFactory.setShareNativeConnection(true);
+            lettuceConnectionFactory.setPipeliningFlushPolicy(
+                    LettuceConnection.PipeliningFlushPolicy.buffered(Math.max(1, lettucePipelineFlushSize)));
+        }
+        return lettuceConnectionFactory;
+    }
+
+
+    /**
+     * redis value 序列化器，编码格式由 peach.redis.codec 配置，读取时兼容旧版本写入的 json
+     * @param codecProperties
+     * @return
+     */
+    @Bean(name = "redisValueSerializer")
+    @ConditionalOnMissingBean(name = "redisValueSerializer")
+    public RedisSerializer<Object> redisValueSerializer(RedisCodecProperties codecProperties) {
+        log.info("redis value codec: {}, compress threshold: {}", codecProperties.getType(), codecProperties.getCompressThreshold());
+        return new PeachRedisSerializer(codecProperties);
+    }
 
     @Bean(name = "redisTemplate")
     @ConditionalOnMissingBean(RedisTemplate.class)
-    public RedisTemplate<String, Object> redisTemplate(JedisConnectionFactory jedisConnectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                       @Qualifier("redisValueSerializer") RedisSerializer<Object> serializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(jedisConnectionFactory);
+        template.setConnectionFactory(redisConnectionFactory);
         //序列化和反序列化redis的value值
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
-        serializer.setObjectMapper(mapper);
         template.setHashValueSerializer(serializer);
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
@@ -205,9 +297,9 @@ public class RedisConfig<K, V> {
 
     @Bean
     @ConditionalOnMissingBean(StringRedisTemplate.class)
-    public StringRedisTemplate stringRedisTemplate(JedisConnectionFactory jedisConnectionFactory) {
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
         StringRedisTemplate template = new StringRedisTemplate();
-        template.setConnectionFactory(jedisConnectionFactory);
+        template.setConnectionFactory(redisConnectionFactory);
         template.afterPropertiesSet();
         return template;
     }
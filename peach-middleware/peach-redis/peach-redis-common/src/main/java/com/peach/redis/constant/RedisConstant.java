@@ -19,4 +19,12 @@ public interface RedisConstant {
      * 集群模式
      */
     String CLUSTER = "cluster";
+    /**
+     * jedis 客户端，每个连接同时只执行一个命令，使用连接池
+     */
+    String JEDIS = "jedis";
+    /**
+     * lettuce 客户端，多个线程的命令复用少量共享连接
+     */
+    String LETTUCE = "lettuce";
 }
@@ -0,0 +1,86 @@
+package com.peach.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/15 10:40
+ * @Description 与 activateDefaultTyping(NON_FINAL) 行为一致的默认类型处理，
+ * 已注册别名的类型写入 #别名，未注册的类型仍写入类的全限定名
+ */
+public class AliasTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TypeAliasRegistry registry;
+
+    public AliasTypeResolverBuilder(PolymorphicTypeValidator validator, TypeAliasRegistry registry) {
+        super(ObjectMapper.DefaultTyping.NON_FINAL, validator);
+        this.registry = registry;
+        init(JsonTypeInfo.Id.CLASS, null);
+        inclusion(JsonTypeInfo.As.WRAPPER_ARRAY);
+    }
+
+    private AliasTypeResolverBuilder(AliasTypeResolverBuilder base, Class<?> defaultImpl) {
+        super(base, defaultImpl);
+        this.registry = base.registry;
+    }
+
+    @Override
+    public AliasTypeResolverBuilder withDefaultImpl(Class<?> defaultImpl) {
+        return new AliasTypeResolverBuilder(this, defaultImpl);
+    }
+
+    @Override
+    protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType, PolymorphicTypeValidator subtypeValidator,
+                                        Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+        return new AliasTypeIdResolver(baseType, config.getTypeFactory(), subtypeValidator, registry);
+    }
+
+    /**
+     * 优先使用别名的类型标识解析
+     */
+    static class AliasTypeIdResolver extends ClassNameIdResolver {
+
+        private final TypeAliasRegistry registry;
+
+        AliasTypeIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator, TypeAliasRegistry registry) {
+            super(baseType, typeFactory, validator);
+            this.registry = registry;
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            String alias = registry.aliasOf(value.getClass());
+            return alias != null ? alias : super.idFromValue(value);
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            String alias = registry.aliasOf(type);
+            return alias != null ? alias : super.idFromValueAndType(value, type);
+        }
+
+        @Override
+        public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+            Class<?> type = registry.typeOf(id);
+            if (type != null) {
+                return context.constructType(type);
+            }
+            return super.typeFromId(context, id);
+        }
+    }
+}
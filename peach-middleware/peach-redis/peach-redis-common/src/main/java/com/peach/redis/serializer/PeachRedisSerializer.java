@@ -0,0 +1,155 @@
+package com.peach.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/15 11:00
+ * @Description redis value 序列化器
+ * 非 json 格式的数据以 1 个字节的格式标识开头：0x01 smile，0x02 smile+LZ4，0x03 json+LZ4，
+ * 压缩格式在标识后以 4 个字节记录压缩前的长度。json 的首字节不会是这些值，没有格式标识的数据按旧版本的 json 读取，
+ * 因此切换格式后旧数据仍可读取；但旧版本节点无法读取新格式，需在所有节点升级后再修改 type 或开启压缩。
+ * Long 与 Integer 不论格式与压缩配置都写为十进制文本（与 json 一致），使 redis 的 INCRBY 可以直接操作
+ */
+public class PeachRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT_SMILE = 0x01;
+
+    static final byte FORMAT_SMILE_LZ4 = 0x02;
+
+    static final byte FORMAT_JSON_LZ4 = 0x03;
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private static final int LENGTH_BYTES = 4;
+
+    private final RedisCodecType type;
+
+    private final int compressThreshold;
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper smileMapper;
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4FastDecompressor decompressor;
+
+    public PeachRedisSerializer(RedisCodecProperties properties) {
+        this.type = properties.getType() == null ? RedisCodecType.JSON : properties.getType();
+        this.compressThreshold = Math.max(0, properties.getCompressThreshold());
+        this.jsonMapper = jsonMapper();
+        this.smileMapper = smileMapper(new TypeAliasRegistry(properties.getTypeAliases()));
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    /**
+     * 与旧版本 Jackson2JsonRedisSerializer 配置一致的 json 序列化
+     * @return
+     */
+    public static ObjectMapper jsonMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        return mapper;
+    }
+
+    private static ObjectMapper smileMapper(TypeAliasRegistry registry) {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        mapper.setDefaultTyping(new AliasTypeResolverBuilder(mapper.getPolymorphicTypeValidator(), registry));
+        return mapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return value.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        boolean smile = type == RedisCodecType.SMILE;
+        byte[] raw;
+        try {
+            raw = smile ? smileMapper.writeValueAsBytes(value) : jsonMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write redis value: " + e.getMessage(), e);
+        }
+        if (compressThreshold > 0 && raw.length >= compressThreshold) {
+            return compress(smile ? FORMAT_SMILE_LZ4 : FORMAT_JSON_LZ4, raw);
+        }
+        if (!smile) {
+            return raw;
+        }
+        byte[] bytes = new byte[raw.length + 1];
+        bytes[0] = FORMAT_SMILE;
+        System.arraycopy(raw, 0, bytes, 1, raw.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            switch (bytes[0]) {
+                case FORMAT_SMILE:
+                    return smileMapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case FORMAT_SMILE_LZ4:
+                    return smileMapper.readValue(decompress(bytes), Object.class);
+                case FORMAT_JSON_LZ4:
+                    return jsonMapper.readValue(decompress(bytes), Object.class);
+                default:
+                    return jsonMapper.readValue(bytes, Object.class);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Could not read redis value: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] compress(byte format, byte[] raw) {
+        int headerLength = 1 + LENGTH_BYTES;
+        byte[] buffer = new byte[headerLength + compressor.maxCompressedLength(raw.length)];
+        buffer[0] = format;
+        writeInt(buffer, 1, raw.length);
+        int compressedLength = compressor.compress(raw, 0, raw.length, buffer, headerLength, buffer.length - headerLength);
+        byte[] bytes = new byte[headerLength + compressedLength];
+        System.arraycopy(buffer, 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        int length = readInt(bytes, 1);
+        return decompressor.decompress(bytes, 1 + LENGTH_BYTES, length);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,33 @@
+package com.peach.redis.serializer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/15 10:10
+ * @Description redis value 编码配置
+ */
+@Data
+@ConfigurationProperties(prefix = "peach.redis.codec")
+public class RedisCodecProperties {
+
+    /**
+     * 写入时使用的编码格式，读取时按首字节自动识别，旧版本写入的 json 始终可读
+     */
+    private RedisCodecType type = RedisCodecType.JSON;
+
+    /**
+     * 序列化结果达到该字节数时使用 LZ4 压缩，为 0 时不压缩
+     */
+    private int compressThreshold = 0;
+
+    /**
+     * 类型别名，key 为别名，value 为类的全限定名，smile 格式中以 #别名 代替类名写入类型信息
+     */
+    private Map<String, String> typeAliases = new LinkedHashMap<>();
+}
@@ -0,0 +1,20 @@
+package com.peach.redis.serializer;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/15 10:05
+ * @Description redis value 编码格式
+ */
+public enum RedisCodecType {
+
+    /**
+     * 带类名的 json，与旧版本格式一致
+     */
+    JSON,
+
+    /**
+     * jackson smile 二进制格式，类型信息优先使用注册的别名
+     */
+    SMILE
+}
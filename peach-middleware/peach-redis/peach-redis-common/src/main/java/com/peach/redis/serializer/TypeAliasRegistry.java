@@ -0,0 +1,96 @@
+package com.peach.redis.serializer;
+
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/15 10:20
+ * @Description 类型别名表，序列化时以 #别名 代替类的全限定名，类名中不会出现 #，因此与未注册别名的类名不会冲突。
+ * 内置常用 jdk 类型的别名，业务类型通过 peach.redis.codec.type-aliases 注册，
+ * 别名一经使用不能修改或删除，否则已写入 redis 的数据无法读取
+ */
+public class TypeAliasRegistry {
+
+    static final String ALIAS_PREFIX = "#";
+
+    private final Map<String, Class<?>> typesByAlias = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, String> aliasesByType = new ConcurrentHashMap<>();
+
+    public TypeAliasRegistry() {
+        register("list", ArrayList.class);
+        register("linkedList", LinkedList.class);
+        register("map", HashMap.class);
+        register("linkedMap", LinkedHashMap.class);
+        register("treeMap", TreeMap.class);
+        register("set", HashSet.class);
+        register("linkedSet", LinkedHashSet.class);
+        register("treeSet", TreeSet.class);
+        register("date", Date.class);
+        register("long", Long.class);
+        register("decimal", BigDecimal.class);
+        register("bigInteger", BigInteger.class);
+    }
+
+    public TypeAliasRegistry(Map<String, String> aliases) {
+        this();
+        if (aliases == null) {
+            return;
+        }
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        aliases.forEach((alias, className) -> {
+            try {
+                register(alias, ClassUtils.forName(className, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Type alias class not found: " + alias + " -> " + className, e);
+            }
+        });
+    }
+
+    /**
+     * 注册别名
+     * @param alias 别名，不包含 # 前缀
+     * @param type 类型
+     */
+    public void register(String alias, Class<?> type) {
+        String id = ALIAS_PREFIX + alias;
+        Class<?> existing = typesByAlias.putIfAbsent(id, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("Type alias " + alias + " is already registered for " + existing.getName());
+        }
+        aliasesByType.putIfAbsent(type, id);
+    }
+
+    /**
+     * 获取类型的别名
+     * @param type 类型
+     * @return 带 # 前缀的别名，未注册时返回 null
+     */
+    public String aliasOf(Class<?> type) {
+        return aliasesByType.get(type);
+    }
+
+    /**
+     * 根据别名获取类型
+     * @param id 带 # 前缀的别名
+     * @return 未注册时返回 null
+     */
+    public Class<?> typeOf(String id) {
+        return id.startsWith(ALIAS_PREFIX) ? typesByAlias.get(id) : null;
+    }
+}
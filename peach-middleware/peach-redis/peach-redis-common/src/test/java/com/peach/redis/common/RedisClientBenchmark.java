@@ -0,0 +1,243 @@
+package com.peach.redis.common;
+
+import com.peach.redis.constant.RedisConstant;
+import com.peach.redis.serializer.PeachRedisSerializer;
+import com.peach.redis.serializer.RedisCodecProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/20 10:00
+ * @Description jedis 连接池与 lettuce 共享连接的并发读写基准测试
+ * 两种客户端均通过 {@link RedisConfig} 构建连接工厂与 redisTemplate，与应用中的配置一致，
+ * 多个线程在固定时长内按读写比例随机执行 GET/SET，输出吞吐量(ops/s)与 p50、p99、p999 延迟。
+ * 需要可访问的 redis，运行时会写入并在结束后删除 bench.key-prefix 开头的key，不要对生产环境执行。
+ * 运行：在项目根目录执行
+ * mvn -pl peach-middleware/peach-redis/peach-redis-common -am test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test，
+ * 再在模块目录执行 java -Dpeach.redis.host=127.0.0.1:6379 -cp "target/test-classes:target/classes:$(cat target/test.classpath)"
+ * com.peach.redis.common.RedisClientBenchmark
+ * <p>
+ * 可用的系统属性：
+ * peach.redis.mode(standalone)、peach.redis.host(127.0.0.1:6379)、peach.redis.password、peach.redis.database(0)、
+ * peach.redis.sentinelMaster(master)、bench.clients(jedis,lettuce)、bench.threads(64)、bench.warmup(5s)、
+ * bench.duration(30s)、bench.keys(10000)、bench.read-ratio(0.8)、bench.value-size(256)、bench.key-prefix(peach:bench:)
+ */
+public class RedisClientBenchmark {
+
+    private final String mode = System.getProperty("peach.redis.mode", RedisConstant.STANDALONE);
+
+    private final String host = System.getProperty("peach.redis.host", "127.0.0.1:6379");
+
+    private final String password = System.getProperty("peach.redis.password", "");
+
+    private final int database = Integer.getInteger("peach.redis.database", 0);
+
+    private final String sentinelMaster = System.getProperty("peach.redis.sentinelMaster", "master");
+
+    private final int threads = Integer.getInteger("bench.threads", 64);
+
+    private final Duration warmup = Duration.parse("PT" + System.getProperty("bench.warmup", "5s"));
+
+    private final Duration duration = Duration.parse("PT" + System.getProperty("bench.duration", "30s"));
+
+    private final int keys = Integer.getInteger("bench.keys", 10000);
+
+    private final double readRatio = Double.parseDouble(System.getProperty("bench.read-ratio", "0.8"));
+
+    private final int valueSize = Integer.getInteger("bench.value-size", 256);
+
+    private final String keyPrefix = System.getProperty("bench.key-prefix", "peach:bench:");
+
+    public static void main(String[] args) throws Exception {
+        RedisClientBenchmark benchmark = new RedisClientBenchmark();
+        List<Result> results = new ArrayList<>();
+        for (String client : System.getProperty("bench.clients", RedisConstant.JEDIS + "," + RedisConstant.LETTUCE).split(",")) {
+            results.add(benchmark.run(client.trim()));
+        }
+        System.out.printf("%nmode=%s threads=%d duration=%s keys=%d read-ratio=%.2f value-size=%d%n",
+                benchmark.mode, benchmark.threads, benchmark.duration, benchmark.keys, benchmark.readRatio, benchmark.valueSize);
+        System.out.printf("%-8s %12s %10s %10s %10s %8s%n", "client", "ops/s", "p50(us)", "p99(us)", "p999(us)", "errors");
+        for (Result result : results) {
+            System.out.printf("%-8s %12.0f %10.1f %10.1f %10.1f %8d%n", result.client, result.throughput,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(0.999), result.errors);
+        }
+    }
+
+    private Result run(String client) throws Exception {
+        RedisConfig<String, Object> config = redisConfig(client);
+        RedisConnectionFactory factory = RedisConstant.LETTUCE.equals(client)
+                ? config.lettuceConnectionFactory()
+                : config.jedisConnectionFactory(config.poolConfig());
+        if (factory == null) {
+            throw new IllegalArgumentException("unsupported redis mode : " + mode);
+        }
+        ((InitializingBean) factory).afterPropertiesSet();
+        try {
+            RedisTemplate<String, Object> template = config.redisTemplate(factory, new PeachRedisSerializer(new RedisCodecProperties()));
+            String value = value();
+            ValueOperations<String, Object> ops = template.opsForValue();
+            for (int i = 0; i < keys; i++) {
+                ops.set(keyPrefix + i, value);
+            }
+            System.out.printf("%s: warm up %s%n", client, warmup);
+            load(client, ops, value, warmup);
+            System.out.printf("%s: measure %s%n", client, duration);
+            Result result = load(client, ops, value, duration);
+            List<String> written = new ArrayList<>(keys);
+            for (int i = 0; i < keys; i++) {
+                written.add(keyPrefix + i);
+            }
+            template.delete(written);
+            return result;
+        } finally {
+            ((DisposableBean) factory).destroy();
+        }
+    }
+
+    /**
+     * 按应用中的默认值构建配置，属性默认值由 @Value 提供，直接创建时需要手动设置
+     */
+    private RedisConfig<String, Object> redisConfig(String client) {
+        RedisConfig<String, Object> config = new RedisConfig<>();
+        config.setMode(mode);
+        config.setClient(client);
+        config.setHost(host);
+        config.setPassword(password);
+        config.setDatabase(database);
+        config.setSentinelMaster(sentinelMaster);
+        config.setLettuceCommandTimeout(3000);
+        config.setLettuceShutdownTimeout(100);
+        config.setLettucePipelineFlushSize(256);
+        config.setLettuceTopologyRefreshPeriod(30000);
+        return config;
+    }
+
+    private Result load(String client, ValueOperations<String, Object> ops, String value, Duration time) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Worker>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return new Worker().run(ops, value, System.nanoTime() + time.toNanos());
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            List<Worker> workers = new ArrayList<>(threads);
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+            long elapsed = System.nanoTime() - begin;
+            return new Result(client, workers, elapsed);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private String value() {
+        char[] chars = new char[valueSize];
+        Arrays.fill(chars, 'v');
+        return new String(chars);
+    }
+
+    /**
+     * 单个线程的压测循环，延迟记录在线程自己的数组中，结束后合并
+     */
+    private final class Worker {
+
+        private long[] latencies = new long[1 << 16];
+
+        private int size;
+
+        private long errors;
+
+        private Worker run(ValueOperations<String, Object> ops, String value, long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now < deadline) {
+                String key = keyPrefix + random.nextInt(keys);
+                boolean read = random.nextDouble() < readRatio;
+                try {
+                    if (read) {
+                        ops.get(key);
+                    } else {
+                        ops.set(key, value);
+                    }
+                } catch (RuntimeException e) {
+                    errors++;
+                }
+                long end = System.nanoTime();
+                record(end - now);
+                now = end;
+            }
+            return this;
+        }
+
+        private void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+
+    private static final class Result {
+
+        private final String client;
+
+        private final long[] latencies;
+
+        private final long errors;
+
+        private final double throughput;
+
+        private Result(String client, List<Worker> workers, long elapsedNanos) {
+            this.client = client;
+            int total = workers.stream().mapToInt(worker -> worker.size).sum();
+            long[] merged = new long[total];
+            int offset = 0;
+            long errorCount = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, merged, offset, worker.size);
+                offset += worker.size;
+                errorCount += worker.errors;
+            }
+            Arrays.sort(merged);
+            this.latencies = merged;
+            this.errors = errorCount;
+            this.throughput = total / (elapsedNanos / 1_000_000_000D);
+        }
+
+        /**
+         * @param quantile 分位，如 0.99
+         * @return 延迟，单位微秒
+         */
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1000D;
+        }
+    }
+}
@@ -2,11 +2,20 @@ package com.peach.redis.autoconfigure;
 
 
 import com.peach.redis.common.RedisConfig;
+import com.peach.redis.common.tool.RedisDaoAutoConfigure;
+import com.peach.redis.common.tool.RedisPipelineExecutor;
+import com.peach.redis.listener.CacheInvalidationCodec;
+import com.peach.redis.listener.CacheInvalidationPublisher;
 import com.peach.redis.listener.CacheMessageListener;
 import com.peach.redis.config.MultiCacheConfig;
+import com.peach.redis.config.RedisCacheConfig;
 import com.peach.redis.manager.MultiCacheManager;
 import com.peach.redis.manager.MultiCacheManagerService;
+import com.peach.redis.manager.MultiCacheReloader;
+import com.peach.redis.warmup.CacheWarmer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -16,47 +25,117 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.util.Objects;
 
 @Slf4j
-@AutoConfigureAfter(RedisConfig.class)
+@AutoConfigureAfter({RedisConfig.class, RedisDaoAutoConfigure.class})
 @EnableConfigurationProperties(MultiCacheConfig.class)
 @ConditionalOnProperty(prefix = "peach.multicache", name = "enabled", matchIfMissing = true)
 public class MultiCacheAutoConfiguration<K, V>{
 
+    /**
+     * 缓存失效消息编解码
+     *
+     * @param redisTemplate
+     * @return
+     */
+    @Bean
+    @DependsOn("redisTemplate")
+    @ConditionalOnMissingBean(CacheInvalidationCodec.class)
+    @SuppressWarnings("unchecked")
+    public CacheInvalidationCodec cacheInvalidationCodec(RedisTemplate<K, V> redisTemplate) {
+        return new CacheInvalidationCodec((RedisSerializer<Object>) redisTemplate.getValueSerializer());
+    }
+
+    /**
+     * 缓存失效消息发布器
+     *
+     * @param redisTemplate
+     * @param cacheConfig
+     * @param codec
+     * @return
+     */
+    @Bean
+    @DependsOn("redisTemplate")
+    @ConditionalOnMissingBean(CacheInvalidationPublisher.class)
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisTemplate<K, V> redisTemplate, MultiCacheConfig cacheConfig,
+                                                                 CacheInvalidationCodec codec) {
+        log.info("init CacheInvalidationPublisher successful");
+        RedisCacheConfig redisConfig = cacheConfig.getRedis();
+        return new CacheInvalidationPublisher(redisTemplate, codec, redisConfig.getTopic(),
+                redisConfig.getInvalidationBatchWindow(), redisConfig.getInvalidationBatchSize());
+    }
+
     @Bean
     @DependsOn("redisTemplate")
     @ConditionalOnMissingBean(MultiCacheManager.class)
-    public MultiCacheManager cacheManager(RedisTemplate<K, V> redisTemplate, MultiCacheConfig cacheConfig) {
+    public MultiCacheManager cacheManager(RedisTemplate<K, V> redisTemplate, MultiCacheConfig cacheConfig,
+                                          CacheInvalidationPublisher invalidationPublisher,
+                                          ObjectProvider<RedisPipelineExecutor> pipelineExecutor) {
         log.info("init MultiCacheManager successful");
-        return new MultiCacheManager(redisTemplate, cacheConfig);
+        MultiCacheManager cacheManager = new MultiCacheManager(redisTemplate, cacheConfig, invalidationPublisher);
+        pipelineExecutor.ifAvailable(cacheManager::setPipelineExecutor);
+        return cacheManager;
     }
 
 
     @Bean
     @DependsOn("redisTemplate")
     @ConditionalOnMissingBean(RedisMessageListenerContainer.class)
-    public RedisMessageListenerContainer cacheListenerContainer(MultiCacheConfig cacheConfig, RedisTemplate<K, V> redisTemplate, MultiCacheManager cacheManager) {
+    public RedisMessageListenerContainer cacheListenerContainer(MultiCacheConfig cacheConfig, RedisTemplate<K, V> redisTemplate,
+                                                                MultiCacheManager cacheManager, CacheInvalidationCodec codec) {
         log.info("init RedisMessageListenerContainer successful");
         RedisMessageListenerContainer cacheListenerContainer = new RedisMessageListenerContainer();
         cacheListenerContainer.setConnectionFactory(Objects.requireNonNull(redisTemplate.getConnectionFactory()));
-        CacheMessageListener<K, V> cacheMessageListener = new CacheMessageListener<>(redisTemplate, cacheManager);
+        CacheMessageListener<K, V> cacheMessageListener = new CacheMessageListener<>(redisTemplate, cacheManager, codec);
         cacheListenerContainer.addMessageListener(cacheMessageListener, new ChannelTopic(cacheConfig.getRedis().getTopic()));
         return cacheListenerContainer;
     }
 
+    /**
+     * 所有单例初始化完成后注册提前刷新加载器，避免加载器依赖的业务 bean 与 cacheManager 循环依赖
+     *
+     * @param cacheManager
+     * @param reloaders
+     * @return
+     */
+    @Bean
+    public SmartInitializingSingleton multiCacheReloaderRegistrar(MultiCacheManager cacheManager,
+                                                                  ObjectProvider<MultiCacheReloader> reloaders) {
+        return () -> reloaders.orderedStream().forEach(reloader -> {
+            cacheManager.registerReloader(reloader);
+            log.info("register cache reloader, the cache name is : {}", reloader.cacheName());
+        });
+    }
+
+    /**
+     * 缓存预热
+     *
+     * @param cacheManager
+     * @param cacheConfig
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean(CacheWarmer.class)
+    public CacheWarmer cacheWarmer(MultiCacheManager cacheManager, MultiCacheConfig cacheConfig) {
+        log.info("init CacheWarmer successful");
+        return new CacheWarmer(cacheManager, cacheConfig.getWarmUp());
+    }
+
     /**
      * 缓存服务 通过cacheManager操作缓存的工具类实现类
      *
      * @param cacheManager
+     * @param cacheWarmer
      * @return
      */
     @Bean
     @ConditionalOnMissingBean(MultiCacheManagerService.class)
-    public MultiCacheManagerService cacheManagerService(MultiCacheManager cacheManager) {
+    public MultiCacheManagerService cacheManagerService(MultiCacheManager cacheManager, CacheWarmer cacheWarmer) {
         log.info("init MultiCacheManagerService successful");
-        return new MultiCacheManagerService(cacheManager);
+        return new MultiCacheManagerService(cacheManager, cacheWarmer);
     }
 
 
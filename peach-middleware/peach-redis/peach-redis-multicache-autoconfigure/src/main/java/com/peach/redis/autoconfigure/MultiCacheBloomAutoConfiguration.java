@@ -0,0 +1,37 @@
+package com.peach.redis.autoconfigure;
+
+import com.peach.redis.bloom.core.BloomFilterService;
+import com.peach.redis.config.BloomGuardConfig;
+import com.peach.redis.config.MultiCacheConfig;
+import com.peach.redis.guard.BloomKeyGuard;
+import com.peach.redis.manager.MultiCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/02 10:30
+ * @Description 存在 BloomFilterService 时为配置了命名空间的缓存名称注册布隆过滤器，判定不存在的key直接返回空
+ */
+@Slf4j
+@AutoConfigureAfter(value = MultiCacheAutoConfiguration.class,
+        name = "com.peach.redis.bloom.autoconfigure.BloomFilterAutoConfiguration")
+@ConditionalOnClass(name = "com.peach.redis.bloom.core.BloomFilterService")
+@ConditionalOnBean(value = MultiCacheManager.class, type = "com.peach.redis.bloom.core.BloomFilterService")
+public class MultiCacheBloomAutoConfiguration {
+
+    @Bean
+    public SmartInitializingSingleton multiCacheBloomGuardRegistrar(MultiCacheManager cacheManager, MultiCacheConfig cacheConfig,
+                                                                    BloomFilterService bloomFilterService) {
+        BloomGuardConfig config = cacheConfig.getBloom();
+        return () -> config.getNamespaces().forEach((cacheName, namespace) -> {
+            cacheManager.registerKeyGuard(cacheName, new BloomKeyGuard(bloomFilterService, namespace, config.getReadyCheckInterval()));
+            log.info("register bloom filter key guard, the cache name is : {}, namespace : {}", cacheName, namespace);
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.peach.redis.autoconfigure;
+
+import com.peach.redis.listener.CacheInvalidationPublisher;
+import com.peach.redis.manager.MultiCacheManager;
+import com.peach.redis.metrics.MultiCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/19 10:50
+ * @Description 存在 micrometer 时注册多级缓存统计指标，引入 actuator 后可通过 /actuator/metrics 查看
+ */
+@Slf4j
+@AutoConfigureAfter(MultiCacheAutoConfiguration.class)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnBean(MultiCacheManager.class)
+@ConditionalOnProperty(prefix = "peach.multicache", name = "metrics-enabled", matchIfMissing = true)
+public class MultiCacheMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(MultiCacheMetrics.class)
+    public MultiCacheMetrics multiCacheMetrics(MultiCacheManager cacheManager, CacheInvalidationPublisher invalidationPublisher) {
+        log.info("init MultiCacheMetrics successful");
+        return new MultiCacheMetrics(cacheManager, invalidationPublisher);
+    }
+}
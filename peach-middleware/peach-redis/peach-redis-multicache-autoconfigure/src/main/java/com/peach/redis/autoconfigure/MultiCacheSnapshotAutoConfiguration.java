@@ -0,0 +1,57 @@
+package com.peach.redis.autoconfigure;
+
+import com.peach.redis.config.MultiCacheConfig;
+import com.peach.redis.config.SnapshotConfig;
+import com.peach.redis.manager.MultiCacheManager;
+import com.peach.redis.manager.MultiCacheSnapshot;
+import com.peach.redis.manager.MultiCacheSnapshotLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/26 10:40
+ * @Description 开启一级缓存快照，停止时保存热点数据，启动时通过 peach-initialize 的启动事件恢复
+ */
+@Slf4j
+@AutoConfigureAfter(MultiCacheAutoConfiguration.class)
+@ConditionalOnClass(name = "com.peach.initialize.base.AbstractAppStartedEventHandler")
+@ConditionalOnBean(MultiCacheManager.class)
+@ConditionalOnProperty(prefix = "peach.multicache.snapshot", name = "enabled", havingValue = "true")
+public class MultiCacheSnapshotAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(MultiCacheSnapshot.class)
+    @SuppressWarnings("unchecked")
+    public MultiCacheSnapshot multiCacheSnapshot(MultiCacheManager cacheManager, MultiCacheConfig cacheConfig,
+                                                 RedisTemplate redisTemplate, Environment environment) {
+        SnapshotConfig config = cacheConfig.getSnapshot();
+        // 默认放在当前用户的目录下，不使用共享的临时目录，避免其他用户预先放置快照文件
+        Path file = StringUtils.isNotBlank(config.getFile()) ? Paths.get(config.getFile())
+                : Paths.get(System.getProperty("user.home"), ".peach", "multicache",
+                environment.getProperty("spring.application.name", "default") + ".snapshot");
+        MultiCacheSnapshot snapshot = new MultiCacheSnapshot(file, config, (RedisSerializer<Object>) redisTemplate.getValueSerializer());
+        cacheManager.setSnapshot(snapshot);
+        log.info("init MultiCacheSnapshot successful, the file is : {}", file);
+        return snapshot;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MultiCacheSnapshotLoader.class)
+    public MultiCacheSnapshotLoader multiCacheSnapshotLoader(MultiCacheManager cacheManager, MultiCacheSnapshot snapshot) {
+        return new MultiCacheSnapshotLoader(cacheManager);
+    }
+}
@@ -0,0 +1,48 @@
+package com.peach.redis.autoconfigure;
+
+import com.peach.redis.common.RedisConfig;
+import com.peach.redis.config.MultiCacheConfig;
+import com.peach.redis.constant.RedisConstant;
+import com.peach.redis.listener.CacheInvalidationPublisher;
+import com.peach.redis.listener.TrackingInvalidationListener;
+import com.peach.redis.manager.MultiCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/22 10:40
+ * @Description peach.multicache.redis.invalidation-mode=tracking 时通过 redis 客户端缓存推送失效一级缓存，
+ * 非单机模式下不开启 tracking，继续使用 pub/sub
+ */
+@Slf4j
+@AutoConfigureAfter(MultiCacheAutoConfiguration.class)
+@ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+@ConditionalOnBean(MultiCacheManager.class)
+@ConditionalOnProperty(prefix = "peach.multicache.redis", name = "invalidation-mode", havingValue = "tracking")
+public class MultiCacheTrackingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(TrackingInvalidationListener.class)
+    public TrackingInvalidationListener trackingInvalidationListener(RedisConfig<?, ?> redisConfig, MultiCacheConfig cacheConfig,
+                                                                     MultiCacheManager cacheManager,
+                                                                     CacheInvalidationPublisher invalidationPublisher) {
+        RedisStandaloneConfiguration redisConfiguration = null;
+        if (RedisConstant.STANDALONE.equals(redisConfig.getMode())) {
+            redisConfiguration = redisConfig.redisStandaloneConfiguration();
+        } else {
+            log.warn("redis client tracking invalidation only supports standalone mode, current mode is {}, fall back to pub/sub invalidation",
+                    redisConfig.getMode());
+        }
+        log.info("init TrackingInvalidationListener successful");
+        return new TrackingInvalidationListener(redisConfiguration, cacheManager, invalidationPublisher,
+                cacheConfig.getCachePrefix(), cacheConfig.getRedis().getTrackingCheckInterval());
+    }
+}
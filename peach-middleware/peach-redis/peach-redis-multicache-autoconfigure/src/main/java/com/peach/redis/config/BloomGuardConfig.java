@@ -0,0 +1,27 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/02 10:00
+ * @Description 布隆过滤器防穿透配置，需引入 peach-redission-bloomfilter
+ */
+@Data
+public class BloomGuardConfig {
+
+    /**
+     * 缓存名称与布隆过滤器命名空间的对应关系，未配置的缓存名称不使用布隆过滤器
+     */
+    private Map<String, String> namespaces = new HashMap<>();
+
+    /**
+     * 检查命名空间是否已初始化的间隔，未初始化时不拦截任何key，命名空间需由预先导入数据创建
+     */
+    private Duration readyCheckInterval = Duration.ofSeconds(30);
+}
@@ -2,6 +2,10 @@ package com.peach.redis.config;
 
 import lombok.Data;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @Author Mr Shu
  * @Version 1.0.0
@@ -22,10 +26,20 @@ public class CaffeineCacheConfig {
     private long expireAfterWrite = 3 * 60 * 60 * 1000;
 
     /**
-     * 写入后刷新时间
+     * 写入后刷新时间，小于 expireAfterWrite 时开启提前刷新：超过该时间的缓存仍直接返回，同时异步重新加载
      */
     private long refreshAfterWrite = 3 * 60 * 60 * 1000;
 
+    /**
+     * 提前刷新线程数
+     */
+    private int refreshThreads = 4;
+
+    /**
+     * 提前刷新任务队列长度，队列满时跳过本次刷新，继续返回旧值
+     */
+    private int refreshQueueCapacity = 1000;
+
     /**
      * 初始化大小
      */
@@ -37,15 +51,70 @@ public class CaffeineCacheConfig {
     private long maximumSize = 5000;
 
     /**
-     * key 对象引用强度  只能弱引用
+     * 最大权重，单位字节，大于 0 时按序列化后的大小限制一级缓存，不再使用 maximumSize
      */
-    private CaffeineStrength keyStrength = CaffeineStrength.WEAK;
+    private long maximumWeight = 0;
 
     /**
-     * value 对象引用强度 既可以强引用 也可以弱引用
+     * 单个缓存对象序列化后的最大字节数，超过时只放入 redis 不放入一级缓存，小于等于 0 时不限制
+     */
+    private long maximumValueSize = 0;
+
+    /**
+     * key 对象引用强度，弱引用的 key 按对象地址比较，跨节点失效消息中反序列化出的 key 无法命中，默认强引用
+     */
+    private CaffeineStrength keyStrength = CaffeineStrength.STRONG;
+
+    /**
+     * value 对象引用强度 可以是强引用、软引用或弱引用，默认强引用
      */
     private CaffeineStrength valueStrength = CaffeineStrength.STRONG;
 
+    /**
+     * 共享一级缓存配置，开启后 maximumSize、initialCapacity 及引用强度配置不再生效
+     */
+    private SharedStoreConfig shared = new SharedStoreConfig();
+
+    /**
+     * 按缓存名称覆盖的配置
+     */
+    private Map<String, CaffeinePolicyConfig> caches = new HashMap<>();
+
+    /**
+     * 是否开启提前刷新
+     * @return
+     */
+    public boolean isRefreshAheadEnabled() {
+        return refreshAfterWrite > 0 && (expireAfterWrite <= 0 || refreshAfterWrite < expireAfterWrite);
+    }
+
+    /**
+     * 获取缓存名称生效的配置，合并按缓存名称覆盖的配置
+     * @param cacheName 缓存名称
+     * @return 未覆盖时返回当前配置
+     */
+    public CaffeineCacheConfig forCache(String cacheName) {
+        CaffeinePolicyConfig policy = caches == null ? null : caches.get(cacheName);
+        if (policy == null) {
+            return this;
+        }
+        CaffeineCacheConfig config = new CaffeineCacheConfig();
+        config.setExpireAfterAccess(policy.getExpireAfterAccess() != null ? policy.getExpireAfterAccess() : expireAfterAccess);
+        config.setExpireAfterWrite(policy.getExpireAfterWrite() != null ? policy.getExpireAfterWrite() : expireAfterWrite);
+        config.setRefreshAfterWrite(refreshAfterWrite);
+        config.setRefreshThreads(refreshThreads);
+        config.setRefreshQueueCapacity(refreshQueueCapacity);
+        config.setInitialCapacity(initialCapacity);
+        config.setMaximumSize(policy.getMaximumSize() != null ? policy.getMaximumSize() : maximumSize);
+        config.setMaximumWeight(policy.getMaximumWeight() != null ? policy.getMaximumWeight() : maximumWeight);
+        config.setMaximumValueSize(policy.getMaximumValueSize() != null ? policy.getMaximumValueSize() : maximumValueSize);
+        config.setKeyStrength(keyStrength);
+        config.setValueStrength(policy.getValueStrength() != null ? policy.getValueStrength() : valueStrength);
+        config.setShared(shared);
+        config.setCaches(Collections.emptyMap());
+        return config;
+    }
+
     public enum CaffeineStrength {
         /**
          * 弱引用
@@ -55,6 +124,11 @@ public class CaffeineCacheConfig {
         /**
          * 强引用
          */
-        STRONG
+        STRONG,
+
+        /**
+         * 软引用，内存不足时由 GC 回收，只适用于 value
+         */
+        SOFT
     }
 }
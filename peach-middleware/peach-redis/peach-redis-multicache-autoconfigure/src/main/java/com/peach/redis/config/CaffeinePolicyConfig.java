@@ -0,0 +1,44 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/21 09:30
+ * @Description 单个缓存名称的 caffeine 配置，未配置的项沿用 peach.multicache.caffeine 下的全局配置，
+ * 开启共享一级缓存时不生效
+ */
+@Data
+public class CaffeinePolicyConfig {
+
+    /**
+     * 最大缓存对象个数
+     */
+    private Long maximumSize;
+
+    /**
+     * 最大权重，单位字节，大于 0 时按序列化后的大小限制一级缓存，不再使用 maximumSize
+     */
+    private Long maximumWeight;
+
+    /**
+     * 单个缓存对象序列化后的最大字节数，超过时只放入 redis 不放入一级缓存
+     */
+    private Long maximumValueSize;
+
+    /**
+     * 写入后过期时间
+     */
+    private Long expireAfterWrite;
+
+    /**
+     * 访问后过期时间
+     */
+    private Long expireAfterAccess;
+
+    /**
+     * value 对象引用强度，为空时使用全局配置
+     */
+    private CaffeineCacheConfig.CaffeineStrength valueStrength;
+}
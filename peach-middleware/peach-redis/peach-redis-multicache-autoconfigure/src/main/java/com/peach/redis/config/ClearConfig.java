@@ -0,0 +1,38 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/28 10:00
+ * @Description 清空缓存时删除 redis 数据的配置
+ */
+@Data
+public class ClearConfig {
+
+    /**
+     * 单次 SCAN 的 count 参数
+     */
+    private int scanCount = 1000;
+
+    /**
+     * 累积多少个key后通过一次 pipeline 执行 UNLINK
+     */
+    private int batchSize = 500;
+
+    /**
+     * 异步清空的线程数
+     */
+    private int parallelism = 2;
+
+    /**
+     * 异步清空排队的最大任务数，超过后提交失败
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 每秒最多删除的key个数，小于等于 0 时不限制
+     */
+    private int opsPerSecond = 0;
+}
@@ -0,0 +1,52 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/09 10:20
+ * @Description 跨节点单飞加载配置
+ * 开启后同一个key在所有节点上同时未命中时，只有抢到 redis 租约的节点执行加载，其他节点等待加载结果
+ */
+@Data
+public class DistributedLoadConfig {
+
+    /**
+     * 开启跨节点单飞加载的缓存名称
+     */
+    private Set<String> cacheNames = new HashSet<>();
+
+    /**
+     * 加载租约的有效期，需大于加载器的正常耗时，持有租约的节点宕机时租约到期自动释放
+     */
+    private Duration leaseTime = Duration.ofSeconds(3);
+
+    /**
+     * 未抢到租约的节点最长等待时间
+     */
+    private Duration waitTimeout = Duration.ofMillis(500);
+
+    /**
+     * 等待期间轮询 redis 的间隔，收到持有租约节点的变更通知时会提前结束等待
+     */
+    private Duration pollInterval = Duration.ofMillis(20);
+
+    /**
+     * 等待超时后是否在本节点自行加载，为 false 时抛出异常
+     */
+    private boolean fallbackToLocalLoad = true;
+
+    /**
+     * 判断缓存是否开启跨节点单飞加载
+     * @param cacheName 缓存名称
+     * @return
+     */
+    public boolean isEnabled(String cacheName) {
+        return cacheNames != null && cacheNames.contains(cacheName);
+    }
+}
@@ -0,0 +1,48 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/14 10:05
+ * @Description 热点key探测配置
+ */
+@Data
+public class HotKeyConfig {
+
+    /**
+     * 是否开启热点key探测
+     */
+    private boolean enabled = false;
+
+    /**
+     * 采样比例，取值 0~1，查询时按该比例采样计数
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * 一个衰减周期内采样计数达到该值的key判定为热点key
+     */
+    private int threshold = 100;
+
+    /**
+     * 衰减周期，每采样该次数后所有计数减半，使过去的热点逐渐冷却
+     */
+    private int decaySamples = 100_000;
+
+    /**
+     * 频率统计的宽度，越大误差越小，会向上取整为 2 的幂
+     */
+    private int sketchWidth = 4096;
+
+    /**
+     * 热点key在本地缓存中的写入后过期时间（毫秒），应大于普通本地缓存的过期时间
+     */
+    private long expireAfterWrite = 6 * 60 * 60 * 1000;
+
+    /**
+     * 热点key本地缓存的最大个数，热点key单独存放，不会被普通缓存挤出
+     */
+    private long maximumSize = 500;
+}
@@ -0,0 +1,21 @@
+package com.peach.redis.config;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/22 09:30
+ * @Description 一级缓存失效方式
+ */
+public enum InvalidationMode {
+
+    /**
+     * 写入后由本节点通过 pub/sub 通知其他节点
+     */
+    PUBSUB,
+
+    /**
+     * redis 6 客户端缓存（RESP3 CLIENT TRACKING 广播模式），由 redis 在 key 变更时推送失效通知，
+     * 其他系统直接写入 redis 的变更同样能失效一级缓存，写入时不再发布消息；只支持单机模式，其他模式下继续使用 pub/sub，需引入 lettuce
+     */
+    TRACKING
+}
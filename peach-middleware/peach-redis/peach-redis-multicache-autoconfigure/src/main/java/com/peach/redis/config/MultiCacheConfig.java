@@ -29,6 +29,17 @@ public class MultiCacheConfig {
      */
     private String cachePrefix;
 
+    /**
+     * 是否开启缓存统计，开启后 caffeine 同时记录统计数据，存在 micrometer 时通过 actuator 暴露
+     */
+    private boolean metricsEnabled = true;
+
+    /**
+     * 缓存实例空闲多久后从 cacheManager 中移除，单位毫秒，移除时一并清除其一级缓存，再次访问时重新创建；
+     * 小于等于 0 时不移除
+     */
+    private long cacheIdleTimeout = 0;
+
     /**
      * redis 缓存配置
      */
@@ -40,4 +51,28 @@ public class MultiCacheConfig {
      */
     @NestedConfigurationProperty
     private CaffeineCacheConfig caffeine = new CaffeineCacheConfig();
+
+    /**
+     * 热点key探测配置
+     */
+    @NestedConfigurationProperty
+    private HotKeyConfig hotKey = new HotKeyConfig();
+
+    /**
+     * 一级缓存快照配置
+     */
+    @NestedConfigurationProperty
+    private SnapshotConfig snapshot = new SnapshotConfig();
+
+    /**
+     * 缓存预热配置
+     */
+    @NestedConfigurationProperty
+    private WarmUpConfig warmUp = new WarmUpConfig();
+
+    /**
+     * 布隆过滤器防穿透配置
+     */
+    @NestedConfigurationProperty
+    private BloomGuardConfig bloom = new BloomGuardConfig();
 }
@@ -26,8 +26,67 @@ public class RedisCacheConfig {
      */
     private Map<String, Duration> expires = new HashMap<>();
 
+    /**
+     * 过期时间随机缩短的最大比例，取值 0~1，例如 0.1 表示实际过期时间在配置值的 90%~100% 之间，
+     * 避免同一批写入的key同时过期，为 0 时不缩短
+     */
+    private double expirationJitter = 0;
+
+    /**
+     * 概率提前过期（XFetch）系数，越大越倾向于提前重新加载，通常取 1，为 0 时不开启
+     */
+    private double earlyExpirationBeta = 0;
+
+    /**
+     * 是否开启按代数隔离的缓存key，开启后 redis key 中包含该缓存名称当前的代数，清空缓存时只需将代数加一，
+     * 旧代数的key不再被访问并随过期时间淘汰，无需扫描 redis。开启或关闭会使已有的 redis 缓存失效，
+     * 缓存需设置过期时间，否则旧代数的key不会被淘汰
+     */
+    private boolean generationEnabled = false;
+
+    /**
+     * 定期从 redis 重新读取代数的间隔，用于修正错过清空通知的节点
+     */
+    private Duration generationRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * 一级缓存失效方式，TRACKING 模式下一级缓存以 key 的字符串形式保存，提前刷新加载器收到的 key 也为字符串；
+     * 本节点写入的 key 同样会收到失效通知，写入后的首次读取会回到 redis
+     */
+    private InvalidationMode invalidationMode = InvalidationMode.PUBSUB;
+
+    /**
+     * TRACKING 模式下检查连接并在重连后重新开启 tracking 的间隔
+     */
+    private Duration trackingCheckInterval = Duration.ofSeconds(1);
+
     /**
      * 缓存更新时通知其他节点的topic名称
      */
     private String topic = MultiCacheConstant.CACHE_MESSAGE_TOPIC;
+
+    /**
+     * 缓存失效消息的合并窗口，窗口内同一缓存名称的变更key合并为一条消息发送，为0时立即发送
+     */
+    private Duration invalidationBatchWindow = Duration.ofMillis(5);
+
+    /**
+     * 单条缓存失效消息最多合并的key个数，达到后立即发送
+     */
+    private int invalidationBatchSize = 256;
+
+    /**
+     * 跨节点单飞加载配置
+     */
+    private DistributedLoadConfig distributedLoad = new DistributedLoadConfig();
+
+    /**
+     * 延迟写入 redis 配置
+     */
+    private WriteBehindConfig writeBehind = new WriteBehindConfig();
+
+    /**
+     * 清空缓存时删除 redis 数据的配置
+     */
+    private ClearConfig clear = new ClearConfig();
 }
@@ -0,0 +1,35 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/20 09:30
+ * @Description 共享一级缓存配置
+ * 开启后所有缓存名称共用一个 caffeine 实例，以 (缓存名称, key) 作为本地缓存的 key，
+ * 适用于按用户等维度动态生成缓存名称的场景，本地缓存总大小不再随缓存名称个数增长
+ */
+@Data
+public class SharedStoreConfig {
+
+    /**
+     * 是否开启共享一级缓存，默认每个缓存名称独立创建 caffeine 实例
+     */
+    private boolean enabled = false;
+
+    /**
+     * 是否按序列化后的字节数计算权重，默认每个缓存对象权重为 1
+     */
+    private boolean weighBySize = false;
+
+    /**
+     * 所有缓存名称共用的最大权重，按字节数计算权重时单位为字节
+     */
+    private long maximumWeight = 100000;
+
+    /**
+     * 单个缓存名称可占用的最大权重，超过后该缓存名称的新 key 不再放入一级缓存，小于等于 0 时不限制
+     */
+    private long maximumWeightPerCache = 5000;
+}
@@ -0,0 +1,42 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/26 09:30
+ * @Description 一级缓存快照配置
+ * 开启后应用关闭时将每个缓存最热的部分数据写入本地文件，下次启动时在就绪前加载回一级缓存，
+ * 加载时按代数与 redis 中的剩余过期时间判断数据是否已变更，已变更或 redis 中已不存在的数据丢弃
+ */
+@Data
+public class SnapshotConfig {
+
+    /**
+     * 是否开启一级缓存快照
+     */
+    private boolean enabled = false;
+
+    /**
+     * 快照文件路径，为空时使用 用户目录/.peach/multicache/应用名称.snapshot，目录不存在时创建为只有当前用户可访问
+     */
+    private String file;
+
+    /**
+     * 每个缓存名称最多保存的个数
+     */
+    private int entriesPerCache = 1000;
+
+    /**
+     * 快照的最长有效时间，超过后启动时不再加载
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * 比较 redis 剩余过期时间时允许的误差
+     */
+    private Duration ttlTolerance = Duration.ofSeconds(2);
+}
@@ -0,0 +1,40 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/27 10:00
+ * @Description 缓存预热配置
+ */
+@Data
+public class WarmUpConfig {
+
+    /**
+     * 分页加载数据时每页的个数
+     */
+    private int pageSize = 1000;
+
+    /**
+     * 单次 pipeline 写入 redis 的 key 个数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 并行写入的线程数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 每秒最多写入的 key 个数，小于等于 0 时不限制
+     */
+    private int opsPerSecond = 0;
+
+    /**
+     * 启动预热等待完成的最长时间，超时后预热在后台继续执行
+     */
+    private Duration awaitTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,48 @@
+package com.peach.redis.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/23 09:30
+ * @Description 延迟写入 redis 配置
+ * 开启后写入只更新一级缓存并进入待写队列，由后台线程合并同一个key的多次写入后批量写入 redis 并发送失效通知。
+ * 待写期间宕机会丢失未写入的数据，其他节点在写入 redis 前读到的仍是旧值，只适用于计数、浏览量等允许短暂不一致的缓存
+ */
+@Data
+public class WriteBehindConfig {
+
+    /**
+     * 开启延迟写入的缓存名称
+     */
+    private Set<String> cacheNames = new HashSet<>();
+
+    /**
+     * 写入 redis 的间隔
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /**
+     * 单次 pipeline 写入的最大key个数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单个缓存名称最多待写的key个数，达到后新的写入直接同步写入 redis
+     */
+    private int maxPending = 10000;
+
+    /**
+     * 判断缓存是否开启延迟写入
+     * @param cacheName 缓存名称
+     * @return
+     */
+    public boolean isEnabled(String cacheName) {
+        return cacheNames != null && cacheNames.contains(cacheName);
+    }
+}
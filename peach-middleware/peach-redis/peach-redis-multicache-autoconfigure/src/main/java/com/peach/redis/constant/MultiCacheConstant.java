@@ -11,4 +11,19 @@ public interface MultiCacheConstant {
 
     String REDIS_KEY_SEPARATOR = ":";
 
+    /**
+     * 跨节点单飞加载租约key的后缀
+     */
+    String LOAD_LEASE_SUFFIX = "load-lease";
+
+    /**
+     * 缓存代数key的后缀
+     */
+    String GENERATION_SUFFIX = "generation";
+
+    /**
+     * 缓存key中代数的前缀
+     */
+    String GENERATION_PREFIX = "v";
+
 }
@@ -0,0 +1,103 @@
+package com.peach.redis.guard;
+
+import com.peach.redis.bloom.core.BloomFilterService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/02 10:10
+ * @Description 基于 {@link BloomFilterService} 的key存在性判断
+ * 命名空间只由预先导入数据创建，尚未导入（没有任何段）时视为所有key都可能存在，避免数据导入前拦截全部请求；
+ * 缓存写入的key只在命名空间已创建后写入布隆过滤器，不会创建首段，单个key的写入不会使未导入的命名空间开始拦截。
+ * 导入数据时需先调用 {@link BloomFilterService#initNamespace} 再读取数据源，导入期间缓存写入的key同样会被记录。
+ * 布隆过滤器访问失败时同样放行，只影响防穿透效果，不影响正常读写。
+ * key 以原始类型写入布隆过滤器，预先导入数据时需使用与缓存key相同的类型
+ */
+@Slf4j
+public class BloomKeyGuard implements KeyGuard {
+
+    private final BloomFilterService bloomFilterService;
+
+    private final String namespace;
+
+    private final long readyCheckNanos;
+
+    private volatile boolean ready;
+
+    private volatile long readyCheckedAt;
+
+    public BloomKeyGuard(BloomFilterService bloomFilterService, String namespace, Duration readyCheckInterval) {
+        this.bloomFilterService = bloomFilterService;
+        this.namespace = namespace;
+        this.readyCheckNanos = readyCheckInterval.toNanos();
+    }
+
+    @Override
+    public boolean mightContain(Object key) {
+        if (!isReady()) {
+            return true;
+        }
+        try {
+            return bloomFilterService.mightContain(namespace, key);
+        } catch (RuntimeException e) {
+            log.warn("check bloom filter failed, the namespace is : {}", namespace, e);
+            return true;
+        }
+    }
+
+    @Override
+    public void add(Object key) {
+        try {
+            if (seeded()) {
+                bloomFilterService.add(namespace, key);
+            }
+        } catch (RuntimeException e) {
+            log.warn("add key to bloom filter failed, the namespace is : {}", namespace, e);
+        }
+    }
+
+    @Override
+    public void addAll(Collection<?> keys) {
+        try {
+            if (seeded()) {
+                bloomFilterService.addAll(namespace, keys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("add keys to bloom filter failed, the namespace is : {}", namespace, e);
+        }
+    }
+
+    /**
+     * 写入前检查命名空间是否已创建，不按间隔跳过检查，导入开始后写入的key不会遗漏
+     */
+    private boolean seeded() {
+        if (!ready) {
+            ready = bloomFilterService.segments(namespace) > 0;
+        }
+        return ready;
+    }
+
+    /**
+     * 命名空间是否已初始化，按间隔检查，初始化后不再检查
+     */
+    private boolean isReady() {
+        if (ready) {
+            return true;
+        }
+        long checkedAt = this.readyCheckedAt;
+        if (checkedAt != 0 && System.nanoTime() - checkedAt < readyCheckNanos) {
+            return false;
+        }
+        this.readyCheckedAt = System.nanoTime();
+        try {
+            ready = bloomFilterService.segments(namespace) > 0;
+        } catch (RuntimeException e) {
+            log.warn("check bloom filter segments failed, the namespace is : {}", namespace, e);
+        }
+        return ready;
+    }
+}
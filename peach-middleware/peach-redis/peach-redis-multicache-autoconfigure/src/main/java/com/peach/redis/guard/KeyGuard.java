@@ -0,0 +1,33 @@
+package com.peach.redis.guard;
+
+import java.util.Collection;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/02 10:05
+ * @Description 缓存key存在性判断，判定一定不存在的key不再查询 redis 与加载数据，用于防止缓存穿透
+ */
+public interface KeyGuard {
+
+    /**
+     * 判断key是否可能存在，返回 false 表示一定不存在
+     * @param key 缓存key
+     * @return
+     */
+    boolean mightContain(Object key);
+
+    /**
+     * 记录存在的key
+     * @param key 缓存key
+     */
+    void add(Object key);
+
+    /**
+     * 批量记录存在的key
+     * @param keys 缓存key集合
+     */
+    default void addAll(Collection<?> keys) {
+        keys.forEach(this::add);
+    }
+}
@@ -0,0 +1,27 @@
+package com.peach.redis.hotkey;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/14 10:20
+ * @Description 热点key统计结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKey {
+
+    /**
+     * 缓存key
+     */
+    private Object key;
+
+    /**
+     * 当前衰减周期内的估算采样次数
+     */
+    private long frequency;
+}
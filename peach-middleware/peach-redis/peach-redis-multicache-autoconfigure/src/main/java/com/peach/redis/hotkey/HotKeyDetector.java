@@ -0,0 +1,155 @@
+package com.peach.redis.hotkey;
+
+import com.peach.redis.config.HotKeyConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/14 10:30
+ * @Description 热点key探测
+ * 按采样比例对查询的key计数，计数使用 count-min sketch，内存占用固定为 4 * width 个 int，与key数量无关；
+ * 每采样 decaySamples 次所有计数减半，计数达到阈值的key登记为热点key，衰减后低于阈值时移出
+ */
+public class HotKeyDetector {
+
+    private static final int DEPTH = 4;
+
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final AtomicIntegerArray counters;
+
+    private final int mask;
+
+    private final double sampleRate;
+
+    private final int threshold;
+
+    private final int decaySamples;
+
+    private final int maxHotKeys;
+
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * 当前的热点key及其估算次数
+     */
+    private final ConcurrentMap<Object, Long> hotKeys = new ConcurrentHashMap<>();
+
+    public HotKeyDetector(HotKeyConfig config) {
+        int width = Integer.highestOneBit(Math.max(16, config.getSketchWidth() - 1)) << 1;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.mask = width - 1;
+        this.sampleRate = config.getSampleRate();
+        this.threshold = Math.max(1, config.getThreshold());
+        this.decaySamples = Math.max(1, config.getDecaySamples());
+        this.maxHotKeys = (int) Math.max(1, Math.min(Integer.MAX_VALUE, config.getMaximumSize()));
+    }
+
+    /**
+     * 记录一次查询
+     * @param key 缓存key
+     * @return 是否为热点key
+     */
+    public boolean record(Object key) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return hotKeys.containsKey(key);
+        }
+        int estimate = increment(key);
+        if (estimate >= threshold && (hotKeys.size() < maxHotKeys || hotKeys.containsKey(key))) {
+            hotKeys.put(key, (long) estimate);
+        }
+        if (samples.incrementAndGet() % decaySamples == 0) {
+            decay();
+        }
+        return hotKeys.containsKey(key);
+    }
+
+    /**
+     * 判断是否为热点key
+     * @param key 缓存key
+     * @return
+     */
+    public boolean isHot(Object key) {
+        return hotKeys.containsKey(key);
+    }
+
+    /**
+     * 按估算次数从高到低返回热点key
+     * @param topN 返回个数
+     * @return
+     */
+    public List<HotKey> topN(int topN) {
+        List<HotKey> result = new ArrayList<>(hotKeys.size());
+        for (Map.Entry<Object, Long> entry : hotKeys.entrySet()) {
+            result.add(new HotKey(entry.getKey(), entry.getValue()));
+        }
+        result.sort(Comparator.comparingLong(HotKey::getFrequency).reversed());
+        return result.size() > topN ? new ArrayList<>(result.subList(0, Math.max(0, topN))) : result;
+    }
+
+    private int increment(Object key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = i * (mask + 1) + indexOf(hash, i);
+            int value = counters.incrementAndGet(index);
+            if (value < 0) {
+                counters.set(index, Integer.MAX_VALUE);
+                value = Integer.MAX_VALUE;
+            }
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private int estimate(Object key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, counters.get(i * (mask + 1) + indexOf(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 所有计数减半，并移出已低于阈值的热点key，衰减期间并发的计数可能丢失，不影响统计
+     */
+    private synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        Iterator<Map.Entry<Object, Long>> iterator = hotKeys.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Object, Long> entry = iterator.next();
+            int estimate = estimate(entry.getKey());
+            if (estimate < threshold) {
+                iterator.remove();
+            } else {
+                entry.setValue((long) estimate);
+            }
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
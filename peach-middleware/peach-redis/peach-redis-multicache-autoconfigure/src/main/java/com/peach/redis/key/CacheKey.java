@@ -0,0 +1,69 @@
+package com.peach.redis.key;
+
+import java.util.Objects;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 10:00
+ * @Description 尚未编码的 redis 缓存key，由 {@link CacheKeySerializer} 在写入连接时通过所属的 {@link CacheKeyCodec} 直接编码为字节，
+ * 不生成中间的字符串
+ */
+public final class CacheKey {
+
+    private final CacheKeyCodec codec;
+
+    private final Object key;
+
+    /**
+     * 代数，未开启代数隔离时为 -1
+     */
+    private final long generation;
+
+    CacheKey(CacheKeyCodec codec, Object key, long generation) {
+        this.codec = codec;
+        this.key = key;
+        this.generation = generation;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 编码为 redis key 的字节
+     * @return
+     */
+    public byte[] encode() {
+        return codec.encode(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey that = (CacheKey) o;
+        return generation == that.generation && codec == that.codec && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Long.hashCode(generation);
+    }
+
+    /**
+     * 与编码结果一致的字符串形式，用于日志与拼接其他key
+     */
+    @Override
+    public String toString() {
+        return codec.toString(this);
+    }
+}
@@ -0,0 +1,92 @@
+package com.peach.redis.key;
+
+import com.peach.redis.constant.MultiCacheConstant;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 10:20
+ * @Description 单个缓存名称的key编解码
+ * 命名空间前缀（前缀:缓存名称:，开启代数隔离时为 前缀:缓存名称:v代数:）只编码一次，
+ * 编码时按前缀与key的长度分配一个大小正好的数组，Long、Integer、UUID 与 ASCII 字符串直接写入，不生成中间字符串
+ */
+public final class CacheKeyCodec {
+
+    private final String namespace;
+
+    private final byte[] prefix;
+
+    /**
+     * 最近一次使用的代数前缀，代数只在清空时变化
+     */
+    private volatile GenerationPrefix generationPrefix;
+
+    public CacheKeyCodec(String namespace) {
+        this.namespace = namespace;
+        this.prefix = (namespace + MultiCacheConstant.REDIS_KEY_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 构建缓存key
+     * @param key 业务key
+     * @param generation 代数，未开启代数隔离时为 -1
+     * @return
+     */
+    public CacheKey key(Object key, long generation) {
+        return new CacheKey(this, key, generation);
+    }
+
+    byte[] encode(CacheKey cacheKey) {
+        byte[] head = prefix(cacheKey.getGeneration());
+        Object key = cacheKey.getKey();
+        int length = CacheKeyEncoders.length(key);
+        if (length < 0) {
+            byte[] tail = CacheKeyEncoders.fallback(key);
+            byte[] bytes = new byte[head.length + tail.length];
+            System.arraycopy(head, 0, bytes, 0, head.length);
+            System.arraycopy(tail, 0, bytes, head.length, tail.length);
+            return bytes;
+        }
+        byte[] bytes = new byte[head.length + length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        CacheKeyEncoders.write(key, bytes, head.length);
+        return bytes;
+    }
+
+    String toString(CacheKey cacheKey) {
+        StringBuilder builder = new StringBuilder(namespace).append(MultiCacheConstant.REDIS_KEY_SEPARATOR);
+        if (cacheKey.getGeneration() >= 0) {
+            builder.append(MultiCacheConstant.GENERATION_PREFIX).append(cacheKey.getGeneration())
+                    .append(MultiCacheConstant.REDIS_KEY_SEPARATOR);
+        }
+        return builder.append(cacheKey.getKey()).toString();
+    }
+
+    private byte[] prefix(long generation) {
+        if (generation < 0) {
+            return prefix;
+        }
+        GenerationPrefix current = this.generationPrefix;
+        if (current == null || current.generation != generation) {
+            byte[] bytes = (namespace + MultiCacheConstant.REDIS_KEY_SEPARATOR + MultiCacheConstant.GENERATION_PREFIX
+                    + generation + MultiCacheConstant.REDIS_KEY_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+            current = new GenerationPrefix(generation, bytes);
+            this.generationPrefix = current;
+        }
+        return current.bytes;
+    }
+
+    private static final class GenerationPrefix {
+
+        private final long generation;
+
+        private final byte[] bytes;
+
+        private GenerationPrefix(long generation, byte[] bytes) {
+            this.generation = generation;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.peach.redis.key;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 10:10
+ * @Description 常见类型的key直接写入字节数组，结果与 String.valueOf(key) 的 UTF-8 编码一致，
+ * 因此切换后 redis 中已有的key仍可访问
+ */
+final class CacheKeyEncoders {
+
+    private static final int UUID_LENGTH = 36;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private CacheKeyEncoders() {
+    }
+
+    /**
+     * 编码后的字节数，返回 -1 时需通过 {@link #fallback} 编码
+     * @param key 缓存key
+     * @return
+     */
+    static int length(Object key) {
+        if (key instanceof String) {
+            return asciiLength((String) key);
+        }
+        if (key instanceof Long) {
+            return longLength((Long) key);
+        }
+        if (key instanceof Integer) {
+            return longLength((Integer) key);
+        }
+        if (key instanceof UUID) {
+            return UUID_LENGTH;
+        }
+        return -1;
+    }
+
+    /**
+     * 写入 {@link #length} 返回的字节数
+     * @param key 缓存key
+     * @param target 目标数组
+     * @param offset 起始位置
+     */
+    static void write(Object key, byte[] target, int offset) {
+        if (key instanceof String) {
+            String value = (String) key;
+            for (int i = 0; i < value.length(); i++) {
+                target[offset + i] = (byte) value.charAt(i);
+            }
+        } else if (key instanceof Long) {
+            writeLong((Long) key, target, offset);
+        } else if (key instanceof Integer) {
+            writeLong((Integer) key, target, offset);
+        } else {
+            writeUuid((UUID) key, target, offset);
+        }
+    }
+
+    static byte[] fallback(Object key) {
+        return String.valueOf(key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 只包含 ASCII 字符时返回长度，否则返回 -1
+     */
+    private static int asciiLength(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return -1;
+            }
+        }
+        return value.length();
+    }
+
+    private static int longLength(long value) {
+        if (value == Long.MIN_VALUE) {
+            return -1;
+        }
+        long abs = value < 0 ? -value : value;
+        int length = 1;
+        long bound = 10;
+        while (length < 19 && abs >= bound) {
+            length++;
+            bound *= 10;
+        }
+        return value < 0 ? length + 1 : length;
+    }
+
+    private static void writeLong(long value, byte[] target, int offset) {
+        int position = offset + longLength(value);
+        long remaining = value < 0 ? -value : value;
+        do {
+            target[--position] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            target[offset] = '-';
+        }
+    }
+
+    /**
+     * 与 UUID.toString() 一致的 8-4-4-4-12 小写格式
+     */
+    private static void writeUuid(UUID uuid, byte[] target, int offset) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        writeHex(most >>> 32, 8, target, offset);
+        target[offset + 8] = '-';
+        writeHex(most >>> 16, 4, target, offset + 9);
+        target[offset + 13] = '-';
+        writeHex(most, 4, target, offset + 14);
+        target[offset + 18] = '-';
+        writeHex(least >>> 48, 4, target, offset + 19);
+        target[offset + 23] = '-';
+        writeHex(least, 12, target, offset + 24);
+    }
+
+    private static void writeHex(long value, int digits, byte[] target, int offset) {
+        for (int i = digits - 1; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
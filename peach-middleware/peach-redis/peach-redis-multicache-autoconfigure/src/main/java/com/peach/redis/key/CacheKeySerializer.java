@@ -0,0 +1,32 @@
+package com.peach.redis.key;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 10:30
+ * @Description 多级缓存 redis key 序列化器，{@link CacheKey} 通过所属的编解码直接编码，
+ * 其他key按字符串的 UTF-8 编码，与 StringRedisSerializer 一致
+ */
+public class CacheKeySerializer implements RedisSerializer<Object> {
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof CacheKey) {
+            return ((CacheKey) value).encode();
+        }
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
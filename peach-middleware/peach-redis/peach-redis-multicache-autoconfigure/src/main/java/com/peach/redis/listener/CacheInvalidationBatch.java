@@ -0,0 +1,57 @@
+package com.peach.redis.listener;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/06 10:12
+ * @Description 批量缓存失效消息，同一个缓存名称在一个合并窗口内的所有变更key合并为一条消息
+ */
+@Data
+public class CacheInvalidationBatch {
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 消息发起节点
+     */
+    private int sender;
+
+    /**
+     * 是否清空整个缓存，为 true 时忽略 keys
+     */
+    private boolean clear;
+
+    /**
+     * 失效的缓存key
+     */
+    private List<Object> keys;
+
+    /**
+     * 清空缓存后的代数，未开启代数隔离时为 null
+     */
+    private Long generation;
+
+    public CacheInvalidationBatch() {
+    }
+
+    public CacheInvalidationBatch(String cacheName, int sender, boolean clear, Collection<Object> keys) {
+        this.cacheName = cacheName;
+        this.sender = sender;
+        this.clear = clear;
+        this.keys = keys == null ? new ArrayList<>() : new ArrayList<>(keys);
+    }
+
+    public CacheInvalidationBatch(String cacheName, int sender, Long generation) {
+        this(cacheName, sender, true, null);
+        this.generation = generation;
+    }
+}
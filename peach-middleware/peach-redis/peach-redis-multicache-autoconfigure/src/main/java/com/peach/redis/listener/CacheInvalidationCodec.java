@@ -0,0 +1,162 @@
+package com.peach.redis.listener;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/06 10:20
+ * @Description 批量缓存失效消息的二进制编解码
+ * 格式：魔数(1) 版本(1) 标志位(1) 发起节点(4) 缓存名称(4+n) key个数(4) [key类型(1) key内容]...
+ * String/Long/Integer 类型的 key 直接编码，其他类型的 key 使用 redis value 序列化器编码；
+ * 带代数的清空消息在末尾追加代数(8)，旧版本节点解码时会忽略末尾多出的字节
+ */
+public class CacheInvalidationCodec {
+
+    /**
+     * 魔数，json 与 smile 等格式的首字节都不会是该值，以此区分旧版本的 {@link CacheMessage}
+     */
+    public static final byte MAGIC = (byte) 0xCB;
+
+    private static final byte VERSION = 1;
+
+    private static final byte FLAG_CLEAR = 1;
+
+    private static final byte FLAG_GENERATION = 2;
+
+    private static final byte TYPE_STRING = 1;
+
+    private static final byte TYPE_LONG = 2;
+
+    private static final byte TYPE_INTEGER = 3;
+
+    private static final byte TYPE_SERIALIZED = 4;
+
+    private final RedisSerializer<Object> fallbackSerializer;
+
+    public CacheInvalidationCodec(RedisSerializer<Object> fallbackSerializer) {
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    /**
+     * 判断消息是否为批量失效消息格式
+     * @param body 消息体
+     * @return
+     */
+    public static boolean isBatch(byte[] body) {
+        return body != null && body.length > 1 && body[0] == MAGIC;
+    }
+
+    /**
+     * 编码
+     * @param batch 批量失效消息
+     * @return
+     */
+    public byte[] encode(CacheInvalidationBatch batch) {
+        List<Object> keys = batch.getKeys() == null ? new ArrayList<>() : batch.getKeys();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + keys.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            int flags = batch.isClear() ? FLAG_CLEAR : 0;
+            if (batch.getGeneration() != null) {
+                flags |= FLAG_GENERATION;
+            }
+            out.writeByte(flags);
+            out.writeInt(batch.getSender());
+            writeBytes(out, batch.getCacheName().getBytes(StandardCharsets.UTF_8));
+            out.writeInt(keys.size());
+            for (Object key : keys) {
+                writeKey(out, key);
+            }
+            if (batch.getGeneration() != null) {
+                out.writeLong(batch.getGeneration());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cache invalidation message", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码
+     * @param body 消息体
+     * @return
+     */
+    public CacheInvalidationBatch decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            in.readByte();
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported cache invalidation message version: " + version);
+            }
+            byte flags = in.readByte();
+            int sender = in.readInt();
+            String cacheName = new String(readBytes(in), StandardCharsets.UTF_8);
+            int size = in.readInt();
+            List<Object> keys = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                keys.add(readKey(in));
+            }
+            CacheInvalidationBatch batch = new CacheInvalidationBatch(cacheName, sender, (flags & FLAG_CLEAR) != 0, keys);
+            if ((flags & FLAG_GENERATION) != 0) {
+                batch.setGeneration(in.readLong());
+            }
+            return batch;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode cache invalidation message", e);
+        }
+    }
+
+    private void writeKey(DataOutputStream out, Object key) throws IOException {
+        if (key instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeBytes(out, ((String) key).getBytes(StandardCharsets.UTF_8));
+        } else if (key instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) key);
+        } else if (key instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) key);
+        } else {
+            out.writeByte(TYPE_SERIALIZED);
+            writeBytes(out, fallbackSerializer.serialize(key));
+        }
+    }
+
+    private Object readKey(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_SERIALIZED:
+                return fallbackSerializer.deserialize(readBytes(in));
+            default:
+                throw new IllegalStateException("Unknown cache key type: " + type);
+        }
+    }
+
+    private void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+}
@@ -0,0 +1,234 @@
+package com.peach.redis.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/06 10:35
+ * @Description 缓存失效消息发布器
+ * 按缓存名称缓冲变更的key，在合并窗口结束或缓冲key数达到上限时合并为一条二进制消息发送，
+ * 降低写入高峰时 pub/sub 的消息量以及各节点监听器的反序列化开销
+ */
+@Slf4j
+public class CacheInvalidationPublisher implements DisposableBean {
+
+    /**
+     * 当前节点标识，用于忽略自身发出的消息
+     */
+    private final int senderId = UUID.randomUUID().hashCode();
+
+    private final ConcurrentMap<String, Buffer> buffers = new ConcurrentHashMap<>();
+
+    private final RedisTemplate<?, ?> redisTemplate;
+
+    private final CacheInvalidationCodec codec;
+
+    private final byte[] channel;
+
+    private final long windowMillis;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 按缓存名称统计已发送的消息条数
+     */
+    private final ConcurrentMap<String, LongAdder> sentCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 是否发布失效消息，由 redis 推送失效通知时关闭
+     */
+    private volatile boolean enabled = true;
+
+    public CacheInvalidationPublisher(RedisTemplate<?, ?> redisTemplate, CacheInvalidationCodec codec,
+                                      String topic, Duration window, int maxBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.channel = topic.getBytes(StandardCharsets.UTF_8);
+        this.windowMillis = window == null ? 0 : window.toMillis();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "multicache-invalidation-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getSenderId() {
+        return senderId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭失效消息发布，关闭时丢弃尚未发送的key
+     * @param enabled 是否发布
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            buffers.values().forEach(Buffer::drain);
+        }
+    }
+
+    /**
+     * 发布单个key的失效通知
+     * @param cacheName 缓存名称
+     * @param key 缓存key
+     */
+    public void publish(String cacheName, Object key) {
+        publish(cacheName, Collections.singletonList(key));
+    }
+
+    /**
+     * 发布批量key的失效通知，在合并窗口内与同缓存名称的其他key合并发送
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     */
+    public void publish(String cacheName, Collection<?> keys) {
+        if (!enabled || keys == null || keys.isEmpty()) {
+            return;
+        }
+        if (windowMillis <= 0) {
+            send(new CacheInvalidationBatch(cacheName, senderId, false, new ArrayList<>(keys)));
+            return;
+        }
+        Buffer buffer = buffers.computeIfAbsent(cacheName, name -> new Buffer());
+        int state = buffer.add(keys, maxBatchSize);
+        if (state == Buffer.FIRST) {
+            scheduler.schedule(() -> flush(cacheName), windowMillis, TimeUnit.MILLISECONDS);
+        } else if (state == Buffer.FULL) {
+            scheduler.execute(() -> flush(cacheName));
+        }
+    }
+
+    /**
+     * 发布清空缓存通知，立即发送，同缓存名称下尚未发送的key会被丢弃
+     * @param cacheName 缓存名称
+     */
+    public void publishClear(String cacheName) {
+        publishClear(cacheName, null);
+    }
+
+    /**
+     * 发布清空缓存通知，并携带清空后的代数
+     * @param cacheName 缓存名称
+     * @param generation 清空后的代数，未开启代数隔离时为 null
+     */
+    public void publishClear(String cacheName, Long generation) {
+        if (!enabled) {
+            return;
+        }
+        Buffer buffer = buffers.get(cacheName);
+        if (buffer != null) {
+            buffer.drain();
+        }
+        send(new CacheInvalidationBatch(cacheName, senderId, generation));
+    }
+
+    /**
+     * 发送指定缓存名称下缓冲的key
+     * @param cacheName 缓存名称
+     */
+    public void flush(String cacheName) {
+        Buffer buffer = buffers.get(cacheName);
+        if (buffer == null) {
+            return;
+        }
+        List<Object> keys = buffer.drain();
+        if (!keys.isEmpty()) {
+            send(new CacheInvalidationBatch(cacheName, senderId, false, keys));
+        }
+    }
+
+    /**
+     * 发送所有缓冲的key
+     */
+    public void flushAll() {
+        for (String cacheName : buffers.keySet()) {
+            flush(cacheName);
+        }
+    }
+
+    private void send(CacheInvalidationBatch batch) {
+        try {
+            byte[] body = codec.encode(batch);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+            sentCounts.computeIfAbsent(batch.getCacheName(), name -> new LongAdder()).increment();
+            log.debug("publish cache invalidation, the cache name is : {}, keys size : {}", batch.getCacheName(), batch.getKeys().size());
+        } catch (Exception e) {
+            log.error("publish cache invalidation failed, the cache name is : {}", batch.getCacheName(), e);
+        }
+    }
+
+    /**
+     * 指定缓存名称已发送的失效消息条数
+     * @param cacheName 缓存名称
+     * @return
+     */
+    public long sentCount(String cacheName) {
+        LongAdder count = sentCounts.get(cacheName);
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        flushAll();
+    }
+
+    /**
+     * 单个缓存名称的key缓冲区
+     */
+    private static class Buffer {
+
+        static final int QUEUED = 0;
+
+        static final int FIRST = 1;
+
+        static final int FULL = 2;
+
+        private Set<Object> keys = new LinkedHashSet<>();
+
+        synchronized int add(Collection<?> newKeys, int maxBatchSize) {
+            boolean first = keys.isEmpty();
+            keys.addAll(newKeys);
+            if (keys.size() >= maxBatchSize) {
+                return FULL;
+            }
+            return first ? FIRST : QUEUED;
+        }
+
+        synchronized List<Object> drain() {
+            if (keys.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Object> drained = new ArrayList<>(keys);
+            keys = new LinkedHashSet<>();
+            return drained;
+        }
+    }
+}
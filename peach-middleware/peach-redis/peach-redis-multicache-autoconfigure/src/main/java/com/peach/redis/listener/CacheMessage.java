@@ -6,12 +6,13 @@ package com.peach.redis.listener;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * @Author Mr Shu
  * @Version 1.0.0
  * @CreateTime 2025/12/4 16:09
- * @Description 多节点缓存通知消息
+ * @Description 多节点缓存通知消息，当前版本使用 {@link CacheInvalidationBatch} 发送，保留用于兼容旧版本节点
  */
 @Data
 public class CacheMessage implements Serializable {
@@ -28,6 +29,11 @@ public class CacheMessage implements Serializable {
      */
     private Object key;
 
+    /**
+     * 批量变更的缓存key，不为空时忽略 key
+     */
+    private Collection<Object> keys;
+
     /**
      * 消息发起者
      */
@@ -43,4 +49,17 @@ public class CacheMessage implements Serializable {
         this.sender = sender;
     }
 
+    /**
+     * 构建批量变更通知消息
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     * @param sender 消息发起者
+     * @return
+     */
+    public static CacheMessage batch(String cacheName, Collection<Object> keys, Integer sender) {
+        CacheMessage message = new CacheMessage(cacheName, null, sender);
+        message.setKeys(keys);
+        return message;
+    }
+
 }
@@ -10,6 +10,7 @@ import org.springframework.data.redis.core.RedisTemplate;
  * @Author Mr Shu
  * @Version 1.0.0
  * @CreateTime 2025/12/4 17:29
+ * @Description 缓存失效消息监听，优先按批量二进制格式解析，兼容旧版本节点发送的 {@link CacheMessage}
  */
 public class CacheMessageListener<K,V> implements MessageListener {
 
@@ -17,15 +18,34 @@ public class CacheMessageListener<K,V> implements MessageListener {
 
     private MultiCacheManager multiCacheManager;
 
-    public CacheMessageListener(RedisTemplate<K,V> redisTemplate,MultiCacheManager multiCacheManager) {
+    private CacheInvalidationCodec codec;
+
+    public CacheMessageListener(RedisTemplate<K,V> redisTemplate, MultiCacheManager multiCacheManager, CacheInvalidationCodec codec) {
         this.redisTemplate = redisTemplate;
         this.multiCacheManager = multiCacheManager;
+        this.codec = codec;
     }
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
-        CacheMessage cacheMessage = (CacheMessage) redisTemplate.getValueSerializer().deserialize(message.getBody());
+        byte[] body = message.getBody();
+        if (CacheInvalidationCodec.isBatch(body)) {
+            CacheInvalidationBatch batch = codec.decode(body);
+            if (batch.isClear() && batch.getGeneration() != null) {
+                multiCacheManager.applyGeneration(batch.getCacheName(), batch.getGeneration(), batch.getSender());
+            } else if (batch.isClear()) {
+                multiCacheManager.clearLocal(batch.getCacheName(), (Object) null, batch.getSender());
+            } else {
+                multiCacheManager.clearLocal(batch.getCacheName(), batch.getKeys(), batch.getSender());
+            }
+            return;
+        }
+        CacheMessage cacheMessage = (CacheMessage) redisTemplate.getValueSerializer().deserialize(body);
         assert cacheMessage != null;
+        if (cacheMessage.getKeys() != null) {
+            multiCacheManager.clearLocal(cacheMessage.getCacheName(), cacheMessage.getKeys(), cacheMessage.getSender());
+            return;
+        }
         multiCacheManager.clearLocal(cacheMessage.getCacheName(), cacheMessage.getKey(), cacheMessage.getSender());
     }
 }
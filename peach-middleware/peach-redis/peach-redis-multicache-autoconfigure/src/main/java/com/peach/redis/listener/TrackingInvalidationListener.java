@@ -0,0 +1,317 @@
+package com.peach.redis.listener;
+
+import com.peach.common.util.StringUtil;
+import com.peach.redis.constant.MultiCacheConstant;
+import com.peach.redis.manager.MultiCacheManager;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/22 10:10
+ * @Description 基于 redis 6 客户端缓存的一级缓存失效
+ * 使用独立的 RESP3 连接以广播模式开启 CLIENT TRACKING，配置了缓存前缀时只跟踪该前缀，否则为每个缓存名称注册前缀，
+ * 收到 redis 推送的 invalidate 消息后清理对应的一级缓存。开启成功后关闭 pub/sub 发布，开启失败时继续使用 pub/sub；
+ * 连接断开时清空一级缓存，重连后重新开启 tracking 并再次清空，避免断连期间错过的失效通知；
+ * 按缓存名称注册的前缀在缓存实例因空闲被移除时注销，redis 不支持单独注销前缀，需关闭 tracking 后以剩余前缀重新开启；
+ * 广播模式下 redis 拒绝与已注册前缀互相包含的新前缀，新前缀已被更短的前缀覆盖时不再注册，
+ * 新前缀包含已注册的更长前缀时同样以最短前缀集合重新开启
+ */
+@Slf4j
+public class TrackingInvalidationListener implements PushListener, RedisConnectionStateListener,
+        SmartInitializingSingleton, DisposableBean {
+
+    private static final String INVALIDATE = "invalidate";
+
+    /**
+     * 为 null 时不开启 tracking，继续使用 pub/sub
+     */
+    private final RedisStandaloneConfiguration redisConfiguration;
+
+    private final MultiCacheManager cacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final String cachePrefix;
+
+    private final long checkIntervalMillis;
+
+    /**
+     * 需要跟踪的前缀
+     */
+    private final Set<String> prefixes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前连接上实际注册的前缀，互不包含
+     */
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler;
+
+    private RedisClient client;
+
+    private volatile StatefulRedisConnection<String, String> connection;
+
+    /**
+     * 当前连接是否已开启 tracking，连接断开后置为 false，由定时任务重新开启
+     */
+    private volatile boolean tracking;
+
+    /**
+     * 是否已提交按剩余前缀重新开启 tracking 的任务，合并短时间内多次注销
+     */
+    private final AtomicBoolean retrackPending = new AtomicBoolean();
+
+    public TrackingInvalidationListener(RedisStandaloneConfiguration redisConfiguration, MultiCacheManager cacheManager,
+                                        CacheInvalidationPublisher invalidationPublisher, String cachePrefix,
+                                        Duration checkInterval) {
+        this.redisConfiguration = redisConfiguration;
+        this.cacheManager = cacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cachePrefix = cachePrefix;
+        this.checkIntervalMillis = Math.max(100, checkInterval.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "multicache-tracking");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (redisConfiguration == null) {
+            shutdown();
+            return;
+        }
+        try {
+            start();
+        } catch (RuntimeException e) {
+            log.error("enable redis client tracking failed, fall back to pub/sub invalidation", e);
+            shutdown();
+            return;
+        }
+        invalidationPublisher.setEnabled(false);
+        log.info("multicache invalidation by redis client tracking enabled, prefixes : {}", prefixes);
+    }
+
+    private void start() {
+        RedisURI.Builder uri = RedisURI.Builder.redis(redisConfiguration.getHostName(), redisConfiguration.getPort())
+                .withDatabase(redisConfiguration.getDatabase())
+                .withClientName("multicache-tracking");
+        redisConfiguration.getPassword().toOptional().ifPresent(uri::withPassword);
+        client = RedisClient.create(uri.build());
+        client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).autoReconnect(true).build());
+        client.addListener(this);
+        connection = client.connect(StringCodec.UTF8);
+        connection.addListener(this);
+        if (StringUtil.isNotBlank(cachePrefix)) {
+            prefixes.add(cachePrefix + MultiCacheConstant.REDIS_KEY_SEPARATOR);
+        }
+        enableTracking(prefixes);
+        tracking = true;
+        if (StringUtil.isBlank(cachePrefix)) {
+            cacheManager.onCacheCreated(cache -> addPrefix(cache.getName() + MultiCacheConstant.REDIS_KEY_SEPARATOR));
+            cacheManager.onCacheRemoved(cache -> removePrefix(cache.getName() + MultiCacheConstant.REDIS_KEY_SEPARATOR));
+        }
+        scheduler.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 广播模式下前缀之间不能互相包含，只注册不被其他前缀覆盖的最短前缀，被覆盖的前缀由更短的前缀通知
+     */
+    private void enableTracking(Collection<String> trackingPrefixes) {
+        registered.clear();
+        for (String prefix : minimalPrefixes(trackingPrefixes)) {
+            registerPrefix(prefix);
+        }
+    }
+
+    private void registerPrefix(String prefix) {
+        try {
+            connection.sync().clientTracking(TrackingArgs.Builder.enabled().bcast().prefixes(prefix));
+            registered.add(prefix);
+        } catch (RuntimeException e) {
+            log.warn("register client tracking prefix failed, the prefix is : {}, {}", prefix, e.getMessage());
+        }
+    }
+
+    /**
+     * 去掉被其他前缀覆盖的前缀
+     */
+    static List<String> minimalPrefixes(Collection<String> trackingPrefixes) {
+        List<String> sorted = new ArrayList<>(trackingPrefixes);
+        sorted.sort(Comparator.comparingInt(String::length));
+        List<String> minimal = new ArrayList<>();
+        for (String prefix : sorted) {
+            if (minimal.stream().noneMatch(prefix::startsWith)) {
+                minimal.add(prefix);
+            }
+        }
+        return minimal;
+    }
+
+    private void addPrefix(String prefix) {
+        if (!prefixes.add(prefix)) {
+            return;
+        }
+        try {
+            // 与 retrack、check 在同一线程执行，注册时看到的已注册前缀不会被同时改写
+            scheduler.execute(() -> trackPrefix(prefix));
+        } catch (RejectedExecutionException e) {
+            log.debug("redis client tracking stopped, the prefix is not registered : {}", prefix);
+        }
+    }
+
+    private void trackPrefix(String prefix) {
+        if (!tracking || !prefixes.contains(prefix)) {
+            // 未开启时由 check 以当前前缀重新开启
+            return;
+        }
+        if (registered.stream().anyMatch(prefix::startsWith)) {
+            return;
+        }
+        if (registered.stream().anyMatch(r -> r.startsWith(prefix))) {
+            // redis 拒绝包含已注册前缀的新前缀，以最短前缀集合重新开启
+            retrack();
+            return;
+        }
+        registerPrefix(prefix);
+    }
+
+    private void removePrefix(String prefix) {
+        // 被更短前缀覆盖的前缀未单独注册，移除后无需重新开启
+        if (!prefixes.remove(prefix) || !registered.contains(prefix) || !retrackPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(this::retrack);
+        } catch (RejectedExecutionException e) {
+            retrackPending.set(false);
+        }
+    }
+
+    /**
+     * 关闭 tracking 后以剩余前缀重新开启，关闭期间可能错过失效通知，重新开启后清空一级缓存
+     */
+    private void retrack() {
+        retrackPending.set(false);
+        StatefulRedisConnection<String, String> current = this.connection;
+        if (!tracking || current == null || !current.isOpen()) {
+            // 未开启时由 check 以当前前缀重新开启
+            return;
+        }
+        try {
+            current.sync().clientTracking(TrackingArgs.Builder.enabled(false));
+        } catch (RuntimeException e) {
+            log.warn("disable redis client tracking failed, {}", e.getMessage());
+            return;
+        }
+        tracking = false;
+        try {
+            enableTracking(new ArrayList<>(prefixes));
+            tracking = true;
+        } catch (RuntimeException e) {
+            log.warn("re-enable redis client tracking failed, {}", e.getMessage());
+        }
+        cacheManager.clearAllLocal();
+        log.debug("redis client tracking prefixes rebuilt, prefixes : {}", registered);
+    }
+
+    /**
+     * 重连后重新开启 tracking
+     */
+    private void check() {
+        StatefulRedisConnection<String, String> current = this.connection;
+        if (tracking || current == null || !current.isOpen()) {
+            return;
+        }
+        try {
+            enableTracking(new ArrayList<>(prefixes));
+            tracking = true;
+            cacheManager.clearAllLocal();
+            log.info("redis client tracking re-enabled after reconnect");
+        } catch (RuntimeException e) {
+            log.warn("re-enable redis client tracking failed, {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys == null) {
+            // redis 执行了 FLUSHALL / FLUSHDB
+            cacheManager.clearAllLocal();
+            return;
+        }
+        List<String> redisKeys = new ArrayList<>();
+        for (Object key : (List<?>) keys) {
+            if (key != null) {
+                redisKeys.add(key.toString());
+            }
+        }
+        cacheManager.clearLocalByRedisKeys(redisKeys);
+    }
+
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+        if (handler != connection) {
+            return;
+        }
+        tracking = false;
+        cacheManager.clearAllLocal();
+        log.warn("redis client tracking connection lost, local caches cleared");
+    }
+
+    @Override
+    public void onRedisExceptionCaught(RedisChannelHandler<?, ?> handler, Throwable cause) {
+        log.debug("redis client tracking connection exception", cause);
+    }
+
+    private void shutdown() {
+        scheduler.shutdownNow();
+        StatefulRedisConnection<String, String> current = this.connection;
+        if (current != null) {
+            current.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        tracking = false;
+        shutdown();
+    }
+}
@@ -0,0 +1,226 @@
+package com.peach.redis.manager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.peach.redis.common.tool.RedisPipelineExecutor;
+import com.peach.redis.config.ClearConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/28 10:20
+ * @Description 按匹配模式增量删除 redis 中的缓存
+ * 通过 SCAN 游标逐批遍历（集群模式下遍历每个主节点），每累积一批key通过 pipeline 执行 UNLINK，由 redis 在后台线程释放内存；
+ * 集群模式下按 slot 分组执行。异步清空在固定线程数、有界队列的线程池中执行，同一缓存名称同时只执行一个，
+ * 配置每秒删除上限后所有清空任务共用同一个限流；存在 {@link RedisPipelineExecutor} 时由其批量删除，集群模式下各主节点并行发送
+ */
+@Slf4j
+class CacheClearEngine {
+
+    /**
+     * 单条 UNLINK 命令最多携带的key个数
+     */
+    private static final int UNLINK_CHUNK = 100;
+
+    private final RedisTemplate redisTemplate;
+
+    private final int scanCount;
+
+    private final int batchSize;
+
+    private final RateLimiter rateLimiter;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<String, CacheClearProgress> runningTasks = new ConcurrentHashMap<>();
+
+    /**
+     * redis 工具模块的批量删除，存在时按 slot 分组并行向各主节点发送 UNLINK
+     */
+    private volatile RedisPipelineExecutor pipelineExecutor;
+
+    CacheClearEngine(RedisTemplate redisTemplate, ClearConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.scanCount = Math.max(1, config.getScanCount());
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.rateLimiter = config.getOpsPerSecond() > 0 ? RateLimiter.create(config.getOpsPerSecond()) : null;
+        int threads = Math.max(1, config.getParallelism());
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                r -> {
+                    Thread thread = new Thread(r, "multicache-clear-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 在当前线程删除匹配的key
+     * @param cacheName 缓存名称
+     * @param pattern 匹配模式
+     * @return 删除的个数
+     */
+    long clear(String cacheName, String pattern) {
+        CacheClearProgress progress = new CacheClearProgress(cacheName);
+        deleteByPattern(pattern, progress);
+        progress.complete(null);
+        return progress.getDeleted();
+    }
+
+    /**
+     * 异步删除匹配的key，同一缓存名称已有执行中的任务时返回该任务的进度
+     * @param cacheName 缓存名称
+     * @param pattern 匹配模式
+     * @param onCompleted 删除完成且未取消时执行
+     * @return 清空进度
+     * @throws RejectedExecutionException 排队的任务数已达上限
+     */
+    CacheClearProgress submit(String cacheName, String pattern, Runnable onCompleted) {
+        CacheClearProgress progress = new CacheClearProgress(cacheName);
+        CacheClearProgress running = runningTasks.putIfAbsent(cacheName, progress);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> run(pattern, progress, onCompleted));
+        } catch (RejectedExecutionException e) {
+            runningTasks.remove(cacheName, progress);
+            throw e;
+        }
+        return progress;
+    }
+
+    private void run(String pattern, CacheClearProgress progress, Runnable onCompleted) {
+        Throwable error = null;
+        try {
+            deleteByPattern(pattern, progress);
+            if (!progress.isCancelled()) {
+                onCompleted.run();
+            }
+        } catch (RuntimeException e) {
+            log.error("clear cache failed, the cache name is : {}", progress.getCacheName(), e);
+            error = e;
+        } finally {
+            runningTasks.remove(progress.getCacheName(), progress);
+            progress.complete(error);
+            log.info("clear cache finished, {}", progress);
+        }
+    }
+
+    private void deleteByPattern(String pattern, CacheClearProgress progress) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+        RedisPipelineExecutor executor = pipelineExecutor;
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            if (connection instanceof RedisClusterConnection) {
+                RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+                for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                    if (progress.isCancelled()) {
+                        break;
+                    }
+                    if (node.isMaster()) {
+                        try (Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+                            consume(cursor, progress, executor != null ? executor::unlink
+                                    : batch -> unlinkBySlot(clusterConnection, batch));
+                        }
+                    }
+                }
+            } else {
+                try (Cursor<byte[]> cursor = connection.scan(options)) {
+                    consume(cursor, progress, executor != null ? executor::unlink : this::unlinkPipelined);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void consume(Cursor<byte[]> cursor, CacheClearProgress progress, ToLongFunction<List<byte[]>> unlink) {
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        while (!progress.isCancelled() && cursor.hasNext()) {
+            batch.add(cursor.next());
+            if (batch.size() >= batchSize) {
+                delete(batch, progress, unlink);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty() && !progress.isCancelled()) {
+            delete(batch, progress, unlink);
+        }
+    }
+
+    private void delete(List<byte[]> batch, CacheClearProgress progress, ToLongFunction<List<byte[]>> unlink) {
+        progress.scanned(batch.size());
+        if (rateLimiter != null) {
+            rateLimiter.acquire(batch.size());
+        }
+        progress.deleted(unlink.applyAsLong(batch));
+    }
+
+    /**
+     * 单机与哨兵模式下通过一次 pipeline 发送多条 UNLINK，使用独立的连接，不影响 SCAN 游标所在的连接
+     */
+    private long unlinkPipelined(List<byte[]> keys) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < keys.size(); i += UNLINK_CHUNK) {
+                List<byte[]> chunk = keys.subList(i, Math.min(i + UNLINK_CHUNK, keys.size()));
+                connection.unlink(chunk.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        long count = 0;
+        for (Object result : results) {
+            if (result instanceof Long) {
+                count += (Long) result;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 集群模式下多key命令要求所有key位于同一 slot，按 slot 分组后执行
+     */
+    private long unlinkBySlot(RedisConnection connection, List<byte[]> keys) {
+        Map<Integer, List<byte[]>> slots = new HashMap<>();
+        for (byte[] key : keys) {
+            slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(key), slot -> new ArrayList<>()).add(key);
+        }
+        long count = 0;
+        for (List<byte[]> slotKeys : slots.values()) {
+            Long deleted = connection.unlink(slotKeys.toArray(new byte[0][]));
+            count += deleted == null ? 0 : deleted;
+        }
+        return count;
+    }
+
+    void setPipelineExecutor(RedisPipelineExecutor pipelineExecutor) {
+        this.pipelineExecutor = pipelineExecutor;
+    }
+
+    void shutdown() {
+        runningTasks.values().forEach(CacheClearProgress::cancel);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,113 @@
+package com.peach.redis.manager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/28 10:10
+ * @Description 清空缓存进度，可查询已扫描、已删除的key个数，等待完成或取消
+ */
+public class CacheClearProgress {
+
+    private final String cacheName;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final AtomicLong scanned = new AtomicLong();
+
+    private final AtomicLong deleted = new AtomicLong();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private volatile boolean cancelled;
+
+    private volatile long endTime;
+
+    private volatile Throwable error;
+
+    CacheClearProgress(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * 已扫描到的key个数
+     */
+    public long getScanned() {
+        return scanned.get();
+    }
+
+    /**
+     * 已删除的key个数
+     */
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    /**
+     * 清空失败时的异常
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已耗时，完成后为总耗时
+     * @return 毫秒
+     */
+    public long elapsedMillis() {
+        long end = endTime;
+        return (end == 0 ? System.currentTimeMillis() : end) - startTime;
+    }
+
+    /**
+     * 取消清空，已删除的key不会恢复，一级缓存与其他节点不会被清空
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * 等待清空完成
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否已完成
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    void scanned(int count) {
+        scanned.addAndGet(count);
+    }
+
+    void deleted(long count) {
+        deleted.addAndGet(count);
+    }
+
+    void complete(Throwable error) {
+        this.error = error;
+        this.endTime = System.currentTimeMillis();
+        done.countDown();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheClearProgress{cacheName=" + cacheName + ", scanned=" + scanned + ", deleted=" + deleted
+                + ", done=" + isDone() + ", cancelled=" + cancelled + ", elapsed=" + elapsedMillis() + "ms}";
+    }
+}
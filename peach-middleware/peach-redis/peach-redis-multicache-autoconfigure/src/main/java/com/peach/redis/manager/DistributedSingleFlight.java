@@ -0,0 +1,152 @@
+package com.peach.redis.manager;
+
+import com.peach.redis.config.DistributedLoadConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/09 10:40
+ * @Description 跨节点单飞加载
+ * 节点内已经由 {@link SingleFlight} 去重，这里只在节点之间去重：通过 SET NX PX 抢占加载租约，
+ * 抢到租约的节点执行加载，其他节点轮询 redis 中的缓存值，或在收到持有租约节点发出的变更通知时提前结束等待，
+ * 租约被释放但 redis 中仍没有值（加载失败或结果为空）、或等待超时时，按配置在本节点自行加载
+ */
+@Slf4j
+public class DistributedSingleFlight {
+
+    /**
+     * 仅当租约仍属于自己时才删除，避免租约过期后误删其他节点的租约
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate redisTemplate;
+
+    private final DistributedLoadConfig config;
+
+    /**
+     * 当前节点正在等待其他节点加载的key
+     */
+    private final ConcurrentMap<Object, Waiter> waiters = new ConcurrentHashMap<>();
+
+    public DistributedSingleFlight(RedisTemplate redisTemplate, DistributedLoadConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+    }
+
+    /**
+     * 执行跨节点单飞加载
+     *
+     * @param key      缓存key
+     * @param leaseKey 租约在 redis 中的key
+     * @param lookup   查询两级缓存，命中时返回存储值
+     * @param loader   加载并写入缓存，返回存储值
+     * @return 存储值
+     * @throws Exception loader 抛出的异常，或等待超时且不允许本节点加载
+     */
+    public Object execute(Object key, String leaseKey, Callable<Object> lookup, Callable<Object> loader) throws Exception {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, config.getLeaseTime());
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loader.call();
+            } finally {
+                release(leaseKey, token);
+            }
+        }
+        Object value = await(key, leaseKey, lookup);
+        if (value != null) {
+            return value;
+        }
+        if (!config.isFallbackToLocalLoad()) {
+            throw new IllegalStateException("Timed out waiting for another node to load cache key: " + leaseKey);
+        }
+        log.debug("load cache locally after waiting for lease holder, the lease key is : {}", leaseKey);
+        return loader.call();
+    }
+
+    /**
+     * 收到变更通知时唤醒等待中的线程
+     * @param keys 变更的缓存key
+     */
+    public void signal(Collection<?> keys) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        for (Object key : keys) {
+            Waiter waiter = waiters.get(key);
+            if (waiter != null) {
+                waiter.signal();
+            }
+        }
+    }
+
+    /**
+     * 等待持有租约的节点加载完成
+     * @return 存储值，租约已释放但没有值或等待超时时返回 null
+     */
+    private Object await(Object key, String leaseKey, Callable<Object> lookup) throws Exception {
+        Waiter waiter = new Waiter();
+        waiters.put(key, waiter);
+        try {
+            long deadline = System.nanoTime() + config.getWaitTimeout().toNanos();
+            long pollNanos = Math.max(1, config.getPollInterval().toNanos());
+            while (true) {
+                Object value = lookup.call();
+                if (value != null) {
+                    return value;
+                }
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey))) {
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                waiter.await(Math.min(pollNanos, remaining));
+            }
+        } finally {
+            waiters.remove(key, waiter);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void release(String leaseKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            // 释放失败时租约会在 leaseTime 后自动过期
+            log.warn("release cache load lease failed, the lease key is : {}", leaseKey, e);
+        }
+    }
+
+    private static class Waiter {
+
+        private boolean signalled;
+
+        synchronized void signal() {
+            signalled = true;
+            notifyAll();
+        }
+
+        synchronized void await(long nanos) throws InterruptedException {
+            if (!signalled) {
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+            }
+            signalled = false;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.peach.redis.manager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/13 15:20
+ * @Description 概率提前过期（XFetch）
+ * 读取 redis 命中时，以 加载耗时 * beta * -ln(random) >= 剩余过期时间 的概率视为未命中并重新加载，
+ * 剩余过期时间越短、加载越慢，提前重新加载的概率越高，使同一批写入的key的重新加载分散到过期前的一段时间内。
+ * 加载耗时取该缓存名称下加载耗时的指数加权平均
+ */
+class EarlyExpiration {
+
+    /**
+     * 指数加权平均中最新一次加载耗时的权重
+     */
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final double beta;
+
+    private volatile double averageLoadMillis;
+
+    EarlyExpiration(double beta) {
+        this.beta = beta;
+    }
+
+    /**
+     * 记录一次加载耗时
+     * @param loadNanos 加载耗时（纳秒）
+     */
+    void recordLoad(long loadNanos) {
+        double millis = loadNanos / 1_000_000D;
+        double average = averageLoadMillis;
+        // 并发更新时丢失个别样本不影响估算
+        averageLoadMillis = average == 0 ? millis : average + EWMA_WEIGHT * (millis - average);
+    }
+
+    /**
+     * 判断是否提前过期
+     * @param remainingMillis 剩余过期时间（毫秒），小于 0 表示未设置过期时间
+     * @return
+     */
+    boolean shouldExpire(long remainingMillis) {
+        double average = averageLoadMillis;
+        if (remainingMillis < 0 || average <= 0) {
+            return false;
+        }
+        double random = 1D - ThreadLocalRandom.current().nextDouble();
+        return -average * beta * Math.log(random) >= remainingMillis;
+    }
+}
@@ -1,23 +1,56 @@
 package com.peach.redis.manager;
 
-import cn.hutool.extra.spring.SpringUtil;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.peach.common.util.StringUtil;
+import com.peach.redis.common.tool.RedisBatch;
+import com.peach.redis.common.tool.RedisPipelineExecutor;
 import com.peach.redis.constant.MultiCacheConstant;
-import com.peach.redis.common.tool.RedisDao;
-import com.peach.redis.listener.CacheMessage;
+import com.peach.redis.listener.CacheInvalidationPublisher;
+import com.peach.redis.metrics.MultiCacheStats;
+import com.peach.redis.store.CaffeineLocalStore;
+import com.peach.redis.store.LocalStore;
+import com.peach.redis.store.StringKeyLocalStore;
+import com.peach.redis.config.InvalidationMode;
+import com.peach.redis.config.CaffeineCacheConfig;
+import com.peach.redis.config.DistributedLoadConfig;
+import com.peach.redis.config.HotKeyConfig;
+import com.peach.redis.guard.KeyGuard;
+import com.peach.redis.hotkey.HotKey;
+import com.peach.redis.hotkey.HotKeyDetector;
+import com.peach.redis.key.CacheKey;
+import com.peach.redis.key.CacheKeyCodec;
 import com.peach.redis.config.MultiCacheConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * @Author Mr Shu
@@ -28,11 +61,119 @@ import java.util.concurrent.locks.ReentrantLock;
 @Slf4j
 public class MultiCache extends AbstractValueAdaptingCache {
 
-    private final Map<String, ReentrantLock> keyLockMap = new ConcurrentHashMap<>();
+    /**
+     * 一次请求获取值与剩余过期时间（毫秒），key 不存在时返回空
+     */
+    private static final RedisScript<List> GET_WITH_TTL_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('get', KEYS[1]) "
+                    + "if not value then return nil end "
+                    + "return {value, redis.call('pttl', KEYS[1])}",
+            List.class);
+
+    /**
+     * 不存在时写入并设置过期时间，已存在时返回当前值，ARGV[2] 小于等于 0 时不设置过期时间
+     */
+    private static final RedisScript<Object> PUT_IF_ABSENT_SCRIPT = new DefaultRedisScript<>(
+            "local ok "
+                    + "if tonumber(ARGV[2]) > 0 then ok = redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2], 'NX') "
+                    + "else ok = redis.call('set', KEYS[1], ARGV[1], 'NX') end "
+                    + "if ok then return nil end "
+                    + "return redis.call('get', KEYS[1])",
+            Object.class);
+
+    /**
+     * 当前值的 SHA-1 与期望版本一致时写入新值，新值为空字符串时删除，成功返回 1
+     */
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('get', KEYS[1]) "
+                    + "if not current or redis.sha1hex(current) ~= ARGV[1] then return 0 end "
+                    + "if ARGV[2] == '' then redis.call('del', KEYS[1]) "
+                    + "elseif tonumber(ARGV[3]) > 0 then redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "else redis.call('set', KEYS[1], ARGV[2]) end "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 自增，key 新建（没有过期时间）时设置过期时间
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('incrby', KEYS[1], ARGV[1]) "
+                    + "if tonumber(ARGV[2]) > 0 and redis.call('pttl', KEYS[1]) == -1 then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]) end "
+                    + "return value",
+            Long.class);
+
+    /**
+     * computeIfPresent 版本冲突时的最大尝试次数
+     */
+    private static final int COMPUTE_MAX_ATTEMPTS = 16;
+
+    private static final byte[] EMPTY_ARG = new byte[0];
+
+    /**
+     * 被 keyGuard 判定为不存在的查询结果
+     */
+    private static final Object REJECTED = new Object();
+
+    /**
+     * 单飞加载，同一个key并发未命中时只加载一次
+     */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 跨节点单飞加载，未开启时为 null
+     */
+    private final DistributedSingleFlight distributedSingleFlight;
+
+    /**
+     * 提前刷新时使用的加载器，未注册时从 @Cacheable(sync = true) 方法的 valueLoader 中获取
+     */
+    private volatile MultiCacheReloader reloader;
+
+    /**
+     * 开启提前刷新时记录每个key最近一次使用的 valueLoader，容量与一级缓存一致，未开启时为 null
+     */
+    private final Cache<Object, Callable<?>> valueLoaders;
+
     /**
      * 一级缓存
      */
-    private Cache<Object, Object> caffeineCache;
+    private final LocalStore localStore;
+    /**
+     * 统计数据，未开启统计时为 null
+     */
+    private final MultiCacheStats stats;
+
+    /**
+     * 热点key探测，未开启时为 null
+     */
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 热点key的本地缓存，独立于普通一级缓存，过期时间更长且不会被普通缓存挤出，未开启时为 null
+     */
+    private final LocalStore hotCache;
+
+    /**
+     * 延迟写入 redis 的待写队列，未开启时为 null
+     */
+    private volatile WriteBehindBuffer writeBehind;
+
+    /**
+     * 删除 redis 中缓存数据的清空引擎
+     */
+    private volatile CacheClearEngine clearEngine;
+
+    /**
+     * 批量操作执行器，集群模式下批量写入 redis 时使用，未引入 redis 工具模块时为 null
+     */
+    private volatile RedisPipelineExecutor pipelineExecutor;
+
+    /**
+     * key存在性判断，判定不存在的key不查询 redis 也不加载，未配置时为 null
+     */
+    private volatile KeyGuard keyGuard;
+
     /**
      * 二级缓存
      */
@@ -44,9 +185,14 @@ public class MultiCache extends AbstractValueAdaptingCache {
     private String cachePrefix;
 
     /**
-     * 缓存主题
+     * redis key 编码，命名空间前缀只编码一次
+     */
+    private final CacheKeyCodec keyCodec;
+
+    /**
+     * 缓存失效消息发布器
      */
-    private String ecivtCacheTopic;
+    private final CacheInvalidationPublisher invalidationPublisher;
 
     private String cacheName;
 
@@ -54,31 +200,167 @@ public class MultiCache extends AbstractValueAdaptingCache {
 
     private final Map<String, Duration> expires;
 
+    /**
+     * 过期时间随机缩短的最大比例
+     */
+    private final double expirationJitter;
 
-    protected MultiCache(String cacheName, RedisTemplate redisTemplate, Cache<Object, Object> caffeineCache, MultiCacheConfig config) {
+    /**
+     * 概率提前过期，未开启时为 null
+     */
+    private final EarlyExpiration earlyExpiration;
+
+    /**
+     * 是否为集群模式，集群模式下 RedisTemplate 不支持 pipeline，首次批量写入时探测
+     */
+    private volatile Boolean clusterMode;
+
+    /**
+     * 是否开启按代数隔离的缓存key
+     */
+    private final boolean generationEnabled;
+
+    private final long generationRefreshNanos;
+
+    /**
+     * 当前代数
+     */
+    private volatile long generation;
+
+    /**
+     * 最近一次从 redis 读取代数的时间，为 0 时表示尚未读取
+     */
+    private volatile long generationCheckedAt;
+
+
+    protected MultiCache(String cacheName, RedisTemplate redisTemplate, LocalStore localStore,
+                         MultiCacheConfig config, CacheInvalidationPublisher invalidationPublisher) {
         super(config.isCacheNullValues());
         this.cacheName = cacheName;
         this.redisTemplate = redisTemplate;
-        this.caffeineCache = caffeineCache;
+        boolean tracking = config.getRedis().getInvalidationMode() == InvalidationMode.TRACKING;
+        this.localStore = tracking ? new StringKeyLocalStore(localStore) : localStore;
         this.cachePrefix = config.getCachePrefix();
+        this.keyCodec = new CacheKeyCodec(buildNamespace());
         this.defaultExpiration = config.getRedis().getDefaultExpiration();
         this.expires = config.getRedis().getExpires();
-        this.ecivtCacheTopic = config.getRedis().getTopic();
+        this.expirationJitter = Math.min(1D, Math.max(0D, config.getRedis().getExpirationJitter()));
+        this.earlyExpiration = config.getRedis().getEarlyExpirationBeta() > 0
+                ? new EarlyExpiration(config.getRedis().getEarlyExpirationBeta()) : null;
+        this.invalidationPublisher = invalidationPublisher;
+        DistributedLoadConfig distributedLoad = config.getRedis().getDistributedLoad();
+        this.distributedSingleFlight = distributedLoad != null && distributedLoad.isEnabled(cacheName)
+                ? new DistributedSingleFlight(redisTemplate, distributedLoad) : null;
+        this.valueLoaders = config.getCaffeine().isRefreshAheadEnabled() ? valueLoaderCache(config.getCaffeine()) : null;
+        this.stats = config.isMetricsEnabled() ? new MultiCacheStats() : null;
+        this.generationEnabled = config.getRedis().isGenerationEnabled();
+        this.generationRefreshNanos = config.getRedis().getGenerationRefreshInterval().toNanos();
+        HotKeyConfig hotKey = config.getHotKey();
+        this.hotKeyDetector = hotKey != null && hotKey.isEnabled() ? new HotKeyDetector(hotKey) : null;
+        LocalStore hotStore = hotKeyDetector != null ? new CaffeineLocalStore(hotCache(hotKey)) : null;
+        this.hotCache = tracking && hotStore != null ? new StringKeyLocalStore(hotStore) : hotStore;
+    }
+
+    private static Cache<Object, Object> hotCache(HotKeyConfig config) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (config.getMaximumSize() > 0) {
+            builder.maximumSize(config.getMaximumSize());
+        }
+        if (config.getExpireAfterWrite() > 0) {
+            builder.expireAfterWrite(config.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
+        }
+        return builder.build();
+    }
+
+    private static Cache<Object, Callable<?>> valueLoaderCache(CaffeineCacheConfig config) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (config.getMaximumSize() > 0) {
+            builder.maximumSize(config.getMaximumSize());
+        }
+        if (config.getExpireAfterWrite() > 0) {
+            builder.expireAfterWrite(config.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
+        }
+        return builder.build();
     }
 
     @Override
     protected Object lookup(Object key) {
-        Object cacheKey = buildCacheKey(key);
+        Object value = lookup(key, earlyExpiration != null, true, true);
+        return value == REJECTED ? null : value;
+    }
+
+    private Object lookup(Object key, boolean allowEarlyExpiration, boolean record) {
+        return lookup(key, allowEarlyExpiration, record, false);
+    }
+
+    /**
+     * 查询两级缓存
+     * @param key 缓存key
+     * @param allowEarlyExpiration 是否允许 redis 命中时按概率提前过期
+     * @param record 是否计入统计与热点key探测，加载前的再次检查不计入
+     * @param guarded 一级缓存未命中时是否先通过 keyGuard 判断key是否存在
+     * @return 存储值，被 keyGuard 判定为不存在时返回 {@link #REJECTED}
+     */
+    private Object lookup(Object key, boolean allowEarlyExpiration, boolean record, boolean guarded) {
+        boolean hot = record && hotKeyDetector != null && hotKeyDetector.record(key);
         Object value = null;
-        value = caffeineCache.getIfPresent(key);
+        value = localStore.getIfPresent(key);
+        if (value == null && hotCache != null) {
+            value = hotCache.getIfPresent(key);
+            if (value != null) {
+                log.debug("get cache from hot key cache, the key is : {}", key);
+                if (record && stats != null) {
+                    stats.recordL1Hits(1);
+                }
+                return value;
+            }
+        }
+        if (value != null) {
+            log.debug("get cache from caffeine, the key is : {}", key);
+            if (record && stats != null) {
+                stats.recordL1Hits(1);
+            }
+            if (hot && hotCache.getIfPresent(key) == null) {
+                hotCache.put(key, value);
+            }
+            return value;
+        }
+        value = getPending(key);
         if (value != null) {
-            log.debug("get cache from caffeine, the key is : {}", cacheKey);
+            // 一级缓存已淘汰但尚未写入 redis 的值
+            if (record && stats != null) {
+                stats.recordL1Hits(1);
+            }
             return value;
         }
-        value = this.redisTemplate.opsForValue().get(cacheKey);
+        KeyGuard guard = this.keyGuard;
+        if (guarded && guard != null && !guard.mightContain(key)) {
+            log.debug("cache key rejected by key guard, the key is : {}", key);
+            if (record && stats != null) {
+                stats.recordMisses(1);
+            }
+            return REJECTED;
+        }
+        // 一级缓存未命中后才构建 redis key，命中时不分配对象也不读取代数
+        Object cacheKey = buildCacheKey(key);
+        if (allowEarlyExpiration) {
+            value = getWithEarlyExpiration(key, cacheKey);
+        } else {
+            value = this.redisTemplate.opsForValue().get(cacheKey);
+        }
         if (value != null) {
             log.debug("get cache from redis and put in caffeine, the key is : {}", cacheKey);
-            caffeineCache.put(key, value);
+            localStore.put(key, value);
+            if (hot) {
+                hotCache.put(key, value);
+            }
+        }
+        if (record && stats != null) {
+            if (value != null) {
+                stats.recordL2Hits(1);
+            } else {
+                stats.recordMisses(1);
+            }
         }
         return value;
     }
@@ -90,36 +372,84 @@ public class MultiCache extends AbstractValueAdaptingCache {
 
     @Override
     public Object getNativeCache() {
-        return this.caffeineCache;
+        return this.localStore.getNativeCache();
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T get(Object key, Callable<T> valueLoader) {
-        Object value = lookup(key);
+        Object value = lookup(key, earlyExpiration != null, true, true);
+        if (value == REJECTED) {
+            return null;
+        }
         if (value != null) {
-            return (T) value;
+            return (T) fromStoreValue(value);
         }
-        ReentrantLock lock = keyLockMap.computeIfAbsent(key.toString(), s -> {
-            log.trace("create lock for key : {}", s);
-            return new ReentrantLock();
-        });
-        lock.lock();
         try {
-            value = lookup(key);
-            if (value != null) {
-                return (T) value;
-            }
-            value = valueLoader.call();
-            Object storeValue = toStoreValue(value);
-            put(key, storeValue);
-            return (T) value;
+            return (T) fromStoreValue(singleFlight.execute(key, () -> load(key, valueLoader)));
         } catch (Exception e) {
-            throw new ValueRetrievalException(key, valueLoader, e.getCause());
-        } finally {
-            lock.unlock();
+            throw new ValueRetrievalException(key, valueLoader, e);
         }
     }
 
+    /**
+     * 再次检查缓存后加载，开启跨节点单飞加载时先抢占 redis 租约
+     * @param key 缓存key
+     * @param valueLoader 加载器
+     * @return 存储值，不允许缓存空值且加载结果为空时返回 null
+     */
+    private Object load(Object key, Callable<?> valueLoader) throws Exception {
+        // 开启概率提前过期时 redis 中的值可能刚被判定为提前过期，只再次检查本节点的一级缓存
+        Object value = earlyExpiration == null ? lookup(key, false, false) : getLocal(key);
+        if (value != null) {
+            return value;
+        }
+        if (distributedSingleFlight == null) {
+            return loadAndPut(key, valueLoader);
+        }
+        String leaseKey = buildCacheKey(key) + MultiCacheConstant.REDIS_KEY_SEPARATOR + MultiCacheConstant.LOAD_LEASE_SUFFIX;
+        return distributedSingleFlight.execute(key, leaseKey, () -> lookup(key, false, false), () -> loadAndPut(key, valueLoader));
+    }
+
+    /**
+     * 一次请求同时获取 redis 中的值与剩余过期时间，按概率提前过期
+     * @param key 缓存key
+     * @param cacheKey redis key
+     * @return 存储值，不存在或被判定提前过期时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private Object getWithEarlyExpiration(Object key, Object cacheKey) {
+        List<Object> result = (List<Object>) redisTemplate.execute(GET_WITH_TTL_SCRIPT, Collections.singletonList(cacheKey));
+        if (CollectionUtils.isEmpty(result) || result.get(0) == null) {
+            return null;
+        }
+        long remainingMillis = ((Number) result.get(1)).longValue();
+        if (earlyExpiration.shouldExpire(remainingMillis)) {
+            log.debug("cache expires early, the key is : {}, remaining ttl : {}ms", cacheKey, remainingMillis);
+            return null;
+        }
+        return result.get(0);
+    }
+
+    /**
+     * 调用 valueLoader 加载并写入缓存
+     * @param key 缓存key
+     * @param valueLoader 加载器
+     * @return 存储值，不允许缓存空值且加载结果为空时返回 null
+     */
+    private Object loadAndPut(Object key, Callable<?> valueLoader) throws Exception {
+        if (valueLoaders != null && reloader == null) {
+            valueLoaders.put(key, valueLoader);
+        }
+        Object loaded = timedLoad(valueLoader);
+        if (loaded == null && !isAllowNullValues()) {
+            return null;
+        }
+        Object storeValue = toStoreValue(loaded);
+        put(key, storeValue);
+        return storeValue;
+    }
+
     @Override
     public void put(Object key, Object value) {
         if (!super.isAllowNullValues() && value == null) {
@@ -129,29 +459,384 @@ public class MultiCache extends AbstractValueAdaptingCache {
         doPut(key, value);
     }
 
+    /**
+     * 通过一次 SET NX 原子写入，已存在时返回 redis 中的当前值，多个节点并发调用时只有一个写入成功
+     */
     @Override
     public ValueWrapper putIfAbsent(Object key, Object value) {
-        Object cacheKey = buildCacheKey(key);
-        Object prevValue;
-        // 考虑使用分布式锁，或者将redis的setIfAbsent改为原子性操作
-        synchronized (key) {
-            prevValue = redisTemplate.opsForValue().get(cacheKey);
-            if (prevValue == null) {
-                doPut(key, value);
-            }
+        Object pending = getPending(key);
+        if (pending != null) {
+            return toValueWrapper(pending);
+        }
+        Object storeValue = toStoreValue(value);
+        Object prevValue = redisTemplate.execute(PUT_IF_ABSENT_SCRIPT, RedisSerializer.byteArray(), redisTemplate.getValueSerializer(),
+                Collections.singletonList(buildCacheKey(key)), serializeValue(storeValue), expireArg(nextExpire()));
+        if (prevValue == null) {
+            guardAdd(Collections.singletonList(key));
+            invalidationPublisher.publish(this.cacheName, key);
+            localStore.put(key, storeValue);
+            putHotIfPresent(key, storeValue);
         }
         return toValueWrapper(prevValue);
     }
 
+    /**
+     * 获取 redis 中的值与版本，用于 {@link #compareAndSet}
+     *
+     * @param key 缓存key
+     * @return 不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> VersionedValue<T> getVersioned(Object key) {
+        flushPending(key);
+        byte[] rawKey = redisTemplate.getKeySerializer().serialize(buildCacheKey(key));
+        byte[] raw = (byte[]) redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        if (raw == null) {
+            return null;
+        }
+        Object storeValue = redisTemplate.getValueSerializer().deserialize(raw);
+        return new VersionedValue<>((T) fromStoreValue(storeValue), sha1Hex(raw));
+    }
+
+    /**
+     * redis 中的当前版本与期望版本一致时写入新值，整个比较与写入在 redis 中原子执行
+     *
+     * @param key 缓存key
+     * @param expectedVersion 期望版本，通过 {@link #getVersioned} 获取
+     * @param value 新值，为 null 且不允许缓存空值时删除
+     * @return 是否写入成功
+     */
+    public boolean compareAndSet(Object key, String expectedVersion, Object value) {
+        flushPending(key);
+        boolean delete = value == null && !isAllowNullValues();
+        Object storeValue = delete ? null : toStoreValue(value);
+        Long result = (Long) redisTemplate.execute(COMPARE_AND_SET_SCRIPT, RedisSerializer.byteArray(), redisTemplate.getValueSerializer(),
+                Collections.singletonList(buildCacheKey(key)), expectedVersion.getBytes(StandardCharsets.UTF_8),
+                delete ? EMPTY_ARG : serializeValue(storeValue), expireArg(nextExpire()));
+        if (result == null || result != 1L) {
+            return false;
+        }
+        invalidationPublisher.publish(this.cacheName, key);
+        if (delete) {
+            localStore.invalidate(key);
+            invalidateHot(Collections.singletonList(key));
+        } else {
+            localStore.put(key, storeValue);
+            putHotIfPresent(key, storeValue);
+        }
+        return true;
+    }
+
+    /**
+     * 存在时根据当前值计算新值并写入，通过版本比较乐观重试，不需要分布式锁
+     *
+     * @param key 缓存key
+     * @param remapping 根据当前值计算新值，返回 null 时删除
+     * @return 新值，不存在时返回 null
+     * @throws IllegalStateException 并发修改导致多次重试后仍未成功
+     */
+    public <T> T computeIfPresent(Object key, Function<? super T, ? extends T> remapping) {
+        for (int attempt = 0; attempt < COMPUTE_MAX_ATTEMPTS; attempt++) {
+            VersionedValue<T> current = getVersioned(key);
+            if (current == null) {
+                return null;
+            }
+            T value = remapping.apply(current.getValue());
+            if (compareAndSet(key, current.getVersion(), value)) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("compute cache value failed after " + COMPUTE_MAX_ATTEMPTS
+                + " attempts, the key is : " + key);
+    }
+
+    /**
+     * 原子自增，key 不存在时从 0 开始并设置缓存的过期时间，已存在时保留原过期时间。
+     * redis 中的值必须是十进制整数文本：由 increment 创建，或以 Long / Integer 写入且 value 序列化器将其写为十进制文本
+     * （PeachRedisSerializer 在任何格式与压缩配置下都如此）；其他值写入的key无法自增
+     *
+     * @param key 缓存key
+     * @param delta 增量
+     * @return 自增后的值
+     * @throws IllegalStateException redis 中的值不是整数
+     */
+    public long increment(Object key, long delta) {
+        flushPending(key);
+        Long value;
+        try {
+            value = (Long) redisTemplate.execute(INCREMENT_SCRIPT, RedisSerializer.byteArray(), redisTemplate.getValueSerializer(),
+                    Collections.singletonList(buildCacheKey(key)), String.valueOf(delta).getBytes(StandardCharsets.UTF_8),
+                    expireArg(nextExpire()));
+        } catch (DataAccessException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains("not an integer")) {
+                throw new IllegalStateException("cache value is not a decimal integer and cannot be incremented, the key is : " + key, e);
+            }
+            throw e;
+        }
+        guardAdd(Collections.singletonList(key));
+        invalidationPublisher.publish(this.cacheName, key);
+        localStore.invalidate(key);
+        invalidateHot(Collections.singletonList(key));
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * 原子操作直接读写 redis，先将尚未写入的值写入
+     */
+    private void flushPending(Object key) {
+        WriteBehindBuffer buffer = this.writeBehind;
+        Object pending = buffer == null ? null : buffer.remove(key);
+        if (pending != null) {
+            setRedisValue(redisTemplate, key, pending);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(Object storeValue) {
+        return redisTemplate.getValueSerializer().serialize(storeValue);
+    }
+
+    private static byte[] expireArg(Duration expire) {
+        long millis = expire.isNegative() ? -1 : expire.toMillis();
+        return String.valueOf(millis).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha1Hex(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 提前刷新，由 caffeine 在刷新线程池中调用，加载结果写入 redis 并通知其他节点，
+     * 返回值由 caffeine 替换一级缓存中的旧值，返回 null 时移除
+     *
+     * @param key 缓存key
+     * @return 新的存储值
+     * @throws Exception 加载失败时 caffeine 保留旧值
+     */
+    Object refresh(Object key) throws Exception {
+        Callable<?> loader = resolveReloader(key);
+        if (loader == null) {
+            // 没有可用的加载器时从 redis 同步最新值，redis 中已过期则移除一级缓存
+            return redisTemplate.opsForValue().get(buildCacheKey(key));
+        }
+        Object loaded = timedLoad(loader);
+        if (loaded == null && !isAllowNullValues()) {
+            redisTemplate.delete(buildCacheKey(key));
+            invalidationPublisher.publish(this.cacheName, key);
+            invalidateHot(Collections.singletonList(key));
+            return null;
+        }
+        Object storeValue = toStoreValue(loaded);
+        setRedisValue(redisTemplate, key, storeValue);
+        invalidationPublisher.publish(this.cacheName, key);
+        putHotIfPresent(key, storeValue);
+        log.debug("refresh cache ahead of expiration, the key is : {}", key);
+        return storeValue;
+    }
+
+    /**
+     * 调用加载器并记录加载耗时，用于统计以及估算概率提前过期
+     */
+    private Object timedLoad(Callable<?> loader) throws Exception {
+        if (earlyExpiration == null && stats == null) {
+            return loader.call();
+        }
+        long start = System.nanoTime();
+        try {
+            Object loaded = loader.call();
+            recordLoadSuccess(System.nanoTime() - start);
+            return loaded;
+        } catch (Exception | Error e) {
+            if (stats != null) {
+                stats.recordLoadFailure(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+
+    private void recordLoadSuccess(long loadNanos) {
+        if (earlyExpiration != null) {
+            earlyExpiration.recordLoad(loadNanos);
+        }
+        if (stats != null) {
+            stats.recordLoadSuccess(loadNanos);
+        }
+    }
+
+    private Callable<?> resolveReloader(Object key) {
+        MultiCacheReloader cacheReloader = this.reloader;
+        if (cacheReloader != null) {
+            return () -> cacheReloader.reload(key);
+        }
+        return valueLoaders == null ? null : valueLoaders.getIfPresent(key);
+    }
+
+    void setReloader(MultiCacheReloader reloader) {
+        this.reloader = reloader;
+    }
+
+    /**
+     * 批量获取缓存：先查 caffeine，未命中的 key 通过一次 MGET 从 redis 获取并回填 caffeine
+     *
+     * @param keys 缓存key集合
+     * @return 命中的 key-value，未命中的 key 不包含在结果中
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        return getAll(keys, null);
+    }
+
+    /**
+     * 批量获取缓存，两级缓存都未命中的 key 只调用一次 bulkLoader 加载，
+     * 加载结果通过一次 pipeline 写回 redis，并只发送一条缓存变更通知
+     *
+     * @param keys       缓存key集合
+     * @param bulkLoader 批量加载器，入参为两级缓存都未命中的 key，可为空
+     * @return 命中或加载到的 key-value
+     */
+    public Map<Object, Object> getAll(Collection<?> keys, Function<Collection<Object>, Map<?, ?>> bulkLoader) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return new LinkedHashMap<>();
+        }
+        Set<Object> distinctKeys = new LinkedHashSet<>(keys);
+        Map<Object, Object> result = new LinkedHashMap<>(distinctKeys.size());
+        Map<Object, Object> localValues = localStore.getAllPresent(distinctKeys);
+        List<Object> misses = new ArrayList<>();
+        for (Object key : distinctKeys) {
+            Object value = localValues.get(key);
+            if (value == null && hotCache != null) {
+                value = hotCache.getIfPresent(key);
+            }
+            if (value == null) {
+                value = getPending(key);
+            }
+            if (value != null) {
+                result.put(key, fromStoreValue(value));
+            } else {
+                misses.add(key);
+            }
+        }
+        if (stats != null) {
+            stats.recordL1Hits(result.size());
+        }
+        KeyGuard guard = this.keyGuard;
+        if (guard != null && !misses.isEmpty()) {
+            int before = misses.size();
+            misses.removeIf(key -> !guard.mightContain(key));
+            if (stats != null) {
+                stats.recordMisses(before - misses.size());
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        List<Object> cacheKeys = new ArrayList<>(misses.size());
+        for (Object key : misses) {
+            cacheKeys.add(buildCacheKey(key));
+        }
+        List<Object> redisValues = this.redisTemplate.opsForValue().multiGet(cacheKeys);
+        Map<Object, Object> redisHits = new LinkedHashMap<>();
+        List<Object> remaining = new ArrayList<>();
+        for (int i = 0; i < misses.size(); i++) {
+            Object value = redisValues == null ? null : redisValues.get(i);
+            if (value != null) {
+                redisHits.put(misses.get(i), value);
+                result.put(misses.get(i), fromStoreValue(value));
+            } else {
+                remaining.add(misses.get(i));
+            }
+        }
+        if (!redisHits.isEmpty()) {
+            log.debug("get {} caches from redis and put in caffeine, the cache name is : {}", redisHits.size(), cacheName);
+            localStore.putAll(redisHits);
+        }
+        if (stats != null) {
+            stats.recordL2Hits(redisHits.size());
+            stats.recordMisses(remaining.size());
+        }
+        if (remaining.isEmpty() || bulkLoader == null) {
+            return result;
+        }
+
+        Map<?, ?> loaded;
+        try {
+            loaded = (Map<?, ?>) timedLoad(() -> bulkLoader.apply(remaining));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(remaining, null, e);
+        }
+        Map<Object, Object> storeValues = new LinkedHashMap<>();
+        for (Object key : remaining) {
+            Object value = loaded == null ? null : loaded.get(key);
+            if (value == null && !isAllowNullValues()) {
+                continue;
+            }
+            storeValues.put(key, toStoreValue(value));
+            result.put(key, value);
+        }
+        doPutAll(storeValues);
+        return result;
+    }
+
+    /**
+     * 批量放入缓存，redis 写入通过一次 pipeline 完成，并只发送一条缓存变更通知
+     *
+     * @param data 缓存数据
+     */
+    public void putAll(Map<?, ?> data) {
+        if (CollectionUtils.isEmpty(data)) {
+            return;
+        }
+        Map<Object, Object> storeValues = new LinkedHashMap<>(data.size());
+        List<Object> evictKeys = new ArrayList<>();
+        data.forEach((key, value) -> {
+            if (value == null && !isAllowNullValues()) {
+                evictKeys.add(key);
+            } else {
+                storeValues.put(key, toStoreValue(value));
+            }
+        });
+        if (!evictKeys.isEmpty()) {
+            List<Object> cacheKeys = new ArrayList<>(evictKeys.size());
+            for (Object key : evictKeys) {
+                cacheKeys.add(buildCacheKey(key));
+            }
+            if (writeBehind != null) {
+                writeBehind.removeAll(evictKeys);
+            }
+            redisTemplate.delete(cacheKeys);
+            invalidationPublisher.publish(this.cacheName, evictKeys);
+            localStore.invalidateAll(evictKeys);
+            invalidateHot(evictKeys);
+        }
+        doPutAll(storeValues);
+    }
 
     @Override
     public void evict(Object key) {
         // 先清除redis中缓存数据，然后清除caffeine中的缓存，
-        // 避免短时间内如果先清除caffeine缓存后其他请求会再从redis里加载到caffeine中
+        // 避免短时间内如果先清除caffeine缓存后其他请求会再从redis里加载到caffeine中；
+        // 移除待写的key时等待正在写入的批次完成，避免删除后被刷新线程写回旧值
+        if (writeBehind != null) {
+            writeBehind.remove(key);
+        }
         redisTemplate.delete(buildCacheKey(key));
         log.info("clear cache in redis, the key is : {}", buildCacheKey(key));
-        push(new CacheMessage(this.cacheName, key, this.caffeineCache.hashCode()));
-        caffeineCache.invalidate(key);
+        invalidationPublisher.publish(this.cacheName, key);
+        localStore.invalidate(key);
+        invalidateHot(Collections.singletonList(key));
+        if (stats != null) {
+            stats.recordEviction();
+        }
         log.info("clear cache in caffeine, the key is : {}", key);
     }
 
@@ -159,53 +844,158 @@ public class MultiCache extends AbstractValueAdaptingCache {
     public void clear() {
         // 先清除redis中缓存数据，然后清除caffeine中的缓存，
         // 避免短时间内如果先清除caffeine缓存后其他请求会再从redis里加载到caffeine中
-        RedisDao redisDao = SpringUtil.getBean(RedisDao.class);
-        String pattern;
-        if (StringUtil.isNotBlank(cachePrefix)) {
-            pattern = cachePrefix
-                    + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                    + this.cacheName
-                    + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                    + "*";
-        } else {
-            pattern = this.cacheName
-                    + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                    + "*";
+        if (writeBehind != null) {
+            writeBehind.clear();
+        }
+        if (generationEnabled) {
+            clearByGeneration();
+            return;
+        }
+        long deleted = clearEngine.clear(cacheName, buildClearPattern());
+        log.info("clear cache in redis, the cache name is : {}, deleted : {}", cacheName, deleted);
+        clearLocalAndNotify();
+    }
+
+    /**
+     * 异步清空缓存，redis 中的数据删除完成后再清除一级缓存并通知其他节点；
+     * 开启代数隔离时只需代数加一，直接在当前线程完成
+     *
+     * @return 清空进度
+     */
+    public CacheClearProgress clearAsync() {
+        if (generationEnabled) {
+            CacheClearProgress progress = new CacheClearProgress(cacheName);
+            clear();
+            progress.complete(null);
+            return progress;
         }
-        Set<Object> keys = redisDao.keys(pattern);
-        if (!CollectionUtils.isEmpty(keys)) {
-            redisDao.delete(keys);
+        if (writeBehind != null) {
+            writeBehind.clear();
         }
-        push(new CacheMessage(this.cacheName, null, this.caffeineCache.hashCode()));
-        caffeineCache.invalidateAll();
+        return clearEngine.submit(cacheName, buildClearPattern(), this::clearLocalAndNotify);
+    }
+
+    private void clearByGeneration() {
+        // 代数加一后旧代数的key不再被访问，随过期时间淘汰
+        Long next = redisTemplate.opsForValue().increment(buildGenerationKey());
+        applyGeneration(next == null ? generation + 1 : next);
+        invalidationPublisher.publishClear(this.cacheName, this.generation);
+        log.info("clear cache by generation, the cache name is : {}, generation : {}", cacheName, this.generation);
+    }
+
+    private void clearLocalAndNotify() {
+        invalidationPublisher.publishClear(this.cacheName);
+        localStore.invalidateAll();
+        invalidateHot(null);
+    }
+
+    private String buildClearPattern() {
+        return buildNamespace() + MultiCacheConstant.REDIS_KEY_SEPARATOR + "*";
     }
 
     /**
-     * @param message
-     * @description 缓存变更时通知其他节点清理本地缓存
+     * 写入的key记录到 keyGuard，避免新写入的key被判定为不存在
      */
-    private void push(CacheMessage message) {
-        redisTemplate.convertAndSend(ecivtCacheTopic, message);
+    private void guardAdd(Collection<?> keys) {
+        KeyGuard guard = this.keyGuard;
+        if (guard != null && !keys.isEmpty()) {
+            if (keys.size() == 1) {
+                guard.add(keys.iterator().next());
+            } else {
+                guard.addAll(keys);
+            }
+        }
+    }
+
+    void setKeyGuard(KeyGuard keyGuard) {
+        this.keyGuard = keyGuard;
+    }
+
+    void setClearEngine(CacheClearEngine clearEngine) {
+        this.clearEngine = clearEngine;
+    }
+
+    void setPipelineExecutor(RedisPipelineExecutor pipelineExecutor) {
+        this.pipelineExecutor = pipelineExecutor;
     }
 
     /**
-     * 根据配置构建缓存key
+     * 根据配置构建缓存key，由 redisTemplate 的 {@link com.peach.redis.key.CacheKeySerializer} 直接编码为字节
      *
      * @param key 缓存key
      * @return
      */
-    private Object buildCacheKey(Object key) {
-        String rawKey = String.valueOf(key);
+    private CacheKey buildCacheKey(Object key) {
+        return keyCodec.key(key, generationEnabled ? currentGeneration() : -1);
+    }
+
+    /**
+     * 缓存名称在 redis 中的命名空间，即 前缀:缓存名称
+     * @return
+     */
+    private String buildNamespace() {
         if (StringUtil.isNotBlank(cachePrefix)) {
             return cachePrefix
                     + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                    + this.cacheName
-                    + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                    + rawKey;
+                    + this.cacheName;
         }
-        return this.cacheName
-                + MultiCacheConstant.REDIS_KEY_SEPARATOR
-                + rawKey;
+        return this.cacheName;
+    }
+
+    /**
+     * 代数在 redis 中的key，与缓存key（命名空间:v代数:key）不会冲突
+     * @return
+     */
+    private String buildGenerationKey() {
+        return buildNamespace() + MultiCacheConstant.REDIS_KEY_SEPARATOR + MultiCacheConstant.GENERATION_SUFFIX;
+    }
+
+    /**
+     * 获取当前代数，超过刷新间隔时从 redis 重新读取
+     * @return
+     */
+    private long currentGeneration() {
+        long checkedAt = this.generationCheckedAt;
+        if (checkedAt == 0 || System.nanoTime() - checkedAt > generationRefreshNanos) {
+            refreshGeneration();
+        }
+        return this.generation;
+    }
+
+    private synchronized void refreshGeneration() {
+        long checkedAt = this.generationCheckedAt;
+        if (checkedAt != 0 && System.nanoTime() - checkedAt <= generationRefreshNanos) {
+            return;
+        }
+        byte[] rawKey = redisTemplate.getKeySerializer().serialize(buildGenerationKey());
+        byte[] value = (byte[]) redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        long latest = value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+        if (checkedAt != 0 && latest != this.generation) {
+            // 错过了清空通知，旧代数的本地缓存已失效
+            log.info("cache generation changed, the cache name is : {}, generation : {} -> {}", cacheName, this.generation, latest);
+            invalidateLocalAll();
+        }
+        this.generation = latest;
+        this.generationCheckedAt = System.nanoTime();
+    }
+
+    /**
+     * 更新代数并清除本地缓存，代数只增不减，乱序到达的旧通知被忽略
+     * @param generation 清空后的代数
+     */
+    void applyGeneration(long generation) {
+        synchronized (this) {
+            if (generation > this.generation) {
+                this.generation = generation;
+            }
+            this.generationCheckedAt = System.nanoTime();
+        }
+        invalidateLocalAll();
+    }
+
+    void invalidateLocalAll() {
+        localStore.invalidateAll();
+        invalidateHot(null);
     }
 
     /**
@@ -217,23 +1007,134 @@ public class MultiCache extends AbstractValueAdaptingCache {
         return cacheNameExpire == null ? defaultExpiration : cacheNameExpire;
     }
 
+    /**
+     * 获取本次写入的过期时间，在配置的过期时间基础上按比例随机缩短
+     * @return
+     */
+    private Duration nextExpire() {
+        Duration expire = getExpire();
+        if (expirationJitter <= 0 || expire.isNegative() || expire.isZero()) {
+            return expire;
+        }
+        long millis = expire.toMillis();
+        long jitter = (long) (millis * expirationJitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.max(1, millis - jitter));
+    }
+
     /**
      * 向缓存中放入数据
      * @param key 缓存key
      * @param value 缓存value
      */
     private void doPut(Object key, Object value) {
-        Duration expire = getExpire();
         value = toStoreValue(value);
+        if (value != NullValue.INSTANCE) {
+            guardAdd(Collections.singletonList(key));
+        }
+        if (writeBehind != null && writeBehind.offer(key, value)) {
+            localStore.put(key, value);
+            putHotIfPresent(key, value);
+            return;
+        }
+        setRedisValue(redisTemplate, key, value);
+        invalidationPublisher.publish(this.cacheName, key);
+        localStore.put(key, value);
+        putHotIfPresent(key, value);
+    }
+
+
+    /**
+     * 向缓存中批量放入数据，value 需已转换为存储值
+     * @param storeValues 缓存数据
+     */
+    private void doPutAll(Map<Object, Object> storeValues) {
+        if (storeValues.isEmpty()) {
+            return;
+        }
+        if (keyGuard != null) {
+            List<Object> existKeys = new ArrayList<>(storeValues.size());
+            storeValues.forEach((key, value) -> {
+                if (value != NullValue.INSTANCE) {
+                    existKeys.add(key);
+                }
+            });
+            guardAdd(existKeys);
+        }
+        Map<Object, Object> redisValues = storeValues;
+        if (writeBehind != null) {
+            // 待写队列已满的key同步写入
+            redisValues = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> entry : storeValues.entrySet()) {
+                if (!writeBehind.offer(entry.getKey(), entry.getValue())) {
+                    redisValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        writeRedis(redisValues);
+        localStore.putAll(storeValues);
+        if (hotCache != null) {
+            storeValues.forEach(this::putHotIfPresent);
+        }
+    }
+
+    /**
+     * 批量写入 redis 并发送一条缓存变更通知，value 需已转换为存储值
+     * @param storeValues 缓存数据
+     */
+    @SuppressWarnings("unchecked")
+    void writeRedis(Map<Object, Object> storeValues) {
+        if (storeValues.isEmpty()) {
+            return;
+        }
+        RedisPipelineExecutor executor = this.pipelineExecutor;
+        if (isClusterMode() && executor != null) {
+            // 集群模式下 RedisTemplate 不支持 pipeline，由批量操作执行器按 slot 分组后按节点 pipeline 写入
+            RedisBatch batch = executor.newBatch(redisTemplate);
+            storeValues.forEach((key, value) -> {
+                Duration expire = nextExpire();
+                if (!expire.isNegative()) {
+                    batch.vSet(buildCacheKey(key), value, expire);
+                } else {
+                    batch.vSet(buildCacheKey(key), value);
+                }
+            });
+            executor.execute(batch);
+        } else if (isClusterMode()) {
+            // 未引入批量操作执行器时逐个写入
+            storeValues.forEach((key, value) -> setRedisValue(redisTemplate, key, value));
+        } else {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    storeValues.forEach((key, value) -> setRedisValue((RedisOperations<Object, Object>) operations, key, value));
+                    return null;
+                }
+            });
+        }
+        invalidationPublisher.publish(this.cacheName, storeValues.keySet());
+    }
+
+    private void setRedisValue(RedisOperations<Object, Object> operations, Object key, Object value) {
+        Duration expire = nextExpire();
         if (!expire.isNegative()) {
-            redisTemplate.opsForValue().set(buildCacheKey(key), value, expire);
+            operations.opsForValue().set(buildCacheKey(key), value, expire);
         } else {
-            redisTemplate.opsForValue().set(buildCacheKey(key), value);
+            operations.opsForValue().set(buildCacheKey(key), value);
         }
-        push(new CacheMessage(this.cacheName, key, this.caffeineCache.hashCode()));
-        caffeineCache.put(key, value);
     }
 
+    /**
+     * 判断当前 redis 连接是否为集群模式
+     * @return
+     */
+    private boolean isClusterMode() {
+        Boolean cluster = this.clusterMode;
+        if (cluster == null) {
+            cluster = (Boolean) redisTemplate.execute((RedisCallback<Boolean>) connection -> connection instanceof RedisClusterConnection);
+            this.clusterMode = Boolean.TRUE.equals(cluster);
+        }
+        return Boolean.TRUE.equals(cluster);
+    }
 
     /**
      * @param key
@@ -242,14 +1143,233 @@ public class MultiCache extends AbstractValueAdaptingCache {
     public void clearLocal(Object key) {
         log.debug("clear local cache, the key is : {}", key);
         if (key == null) {
-            caffeineCache.invalidateAll();
+            localStore.invalidateAll();
+            invalidateHot(null);
         } else {
-            caffeineCache.invalidate(key);
+            localStore.invalidate(key);
+            invalidateHot(Collections.singletonList(key));
+            signalLoaded(Collections.singletonList(key));
+        }
+    }
+
+    /**
+     * 根据 redis 推送的失效 key 清理本地缓存
+     * @param suffix redis key 中命名空间之后的部分，即 [v代数:]key
+     */
+    void clearLocalByRedisSuffix(String suffix) {
+        if (MultiCacheConstant.GENERATION_SUFFIX.equals(suffix)) {
+            if (generationEnabled) {
+                // 代数变更，下次访问时重新读取
+                this.generationCheckedAt = 0;
+                invalidateLocalAll();
+            }
+            return;
+        }
+        if (suffix.endsWith(MultiCacheConstant.REDIS_KEY_SEPARATOR + MultiCacheConstant.LOAD_LEASE_SUFFIX)) {
+            return;
+        }
+        String key = suffix;
+        if (generationEnabled && suffix.startsWith(MultiCacheConstant.GENERATION_PREFIX)) {
+            int separator = suffix.indexOf(MultiCacheConstant.REDIS_KEY_SEPARATOR);
+            if (separator > 0 && isDigits(suffix, MultiCacheConstant.GENERATION_PREFIX.length(), separator)) {
+                key = suffix.substring(separator + 1);
+            }
+        }
+        clearLocal(Collections.singletonList(key));
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param keys
+     * @description 批量清理本地缓存
+     */
+    public void clearLocal(Collection<?> keys) {
+        log.debug("clear local cache, the keys size is : {}", keys.size());
+        localStore.invalidateAll(keys);
+        invalidateHot(keys);
+        signalLoaded(keys);
+    }
+
+    /**
+     * 查询本地缓存，包括热点key缓存
+     * @param key
+     * @return
+     */
+    private Object getLocal(Object key) {
+        Object value = localStore.getIfPresent(key);
+        if (value == null && hotCache != null) {
+            value = hotCache.getIfPresent(key);
+        }
+        return value;
+    }
+
+    /**
+     * 热点key缓存中已存在时更新为新值，不存在时不放入，新的热点key由查询时放入
+     */
+    private void putHotIfPresent(Object key, Object value) {
+        if (hotCache != null && hotCache.getIfPresent(key) != null) {
+            hotCache.put(key, value);
+        }
+    }
+
+    /**
+     * 清理热点key缓存
+     * @param keys 为空时清空
+     */
+    private void invalidateHot(Collection<?> keys) {
+        if (hotCache == null) {
+            return;
+        }
+        if (keys == null) {
+            hotCache.invalidateAll();
+        } else {
+            hotCache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * 按估算访问次数从高到低返回热点key
+     * @param topN 返回个数
+     * @return 未开启热点key探测时返回空集合
+     */
+    public List<HotKey> hotKeys(int topN) {
+        return hotKeyDetector == null ? Collections.emptyList() : hotKeyDetector.topN(topN);
+    }
+
+    /**
+     * 其他节点写入了缓存，唤醒本节点等待这些key加载结果的线程
+     * @param keys
+     */
+    private void signalLoaded(Collection<?> keys) {
+        if (distributedSingleFlight != null) {
+            distributedSingleFlight.signal(keys);
         }
     }
 
 
-    public Cache<Object, Object> getLocalCache() {
-        return caffeineCache;
+    /**
+     * 按访问热度获取一级缓存中的数据，用于生成快照
+     * @param limit 最大个数
+     * @return 缓存key与存储值
+     */
+    Map<Object, Object> hottestLocal(int limit) {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        if (hotCache != null) {
+            entries.putAll(hotCache.hottest(limit));
+        }
+        if (entries.size() < limit) {
+            localStore.hottest(limit).forEach(entries::putIfAbsent);
+        }
+        return entries;
+    }
+
+    /**
+     * 只放入一级缓存，不写入 redis 也不发送通知，用于从快照恢复
+     * @param storeValues 缓存key与存储值
+     */
+    void putLocal(Map<Object, Object> storeValues) {
+        localStore.putAll(storeValues);
+    }
+
+    /**
+     * 当前代数，未开启代数隔离时返回 0
+     * @return
+     */
+    long snapshotGeneration() {
+        return generationEnabled ? currentGeneration() : 0;
+    }
+
+    /**
+     * 批量查询 redis 中缓存的剩余过期时间
+     * @param keys 缓存key集合
+     * @return 与 keys 顺序一致的剩余毫秒数，key 不存在时为 -2，未设置过期时间时为 -1
+     */
+    @SuppressWarnings("unchecked")
+    List<Long> remainingTtls(List<Object> keys) {
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            rawKeys.add(redisTemplate.getKeySerializer().serialize(buildCacheKey(key)));
+        }
+        List<Long> ttls = new ArrayList<>(keys.size());
+        if (isClusterMode()) {
+            for (byte[] rawKey : rawKeys) {
+                ttls.add((Long) redisTemplate.execute((RedisCallback<Long>) connection -> connection.pTtl(rawKey)));
+            }
+            return ttls;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            rawKeys.forEach(connection::pTtl);
+            return null;
+        });
+        for (Object result : results) {
+            ttls.add(result instanceof Long ? (Long) result : -2L);
+        }
+        return ttls;
+    }
+
+    /**
+     * 获取尚未写入 redis 的值
+     * @param key 缓存key
+     * @return 未开启延迟写入或不存在时返回 null
+     */
+    private Object getPending(Object key) {
+        WriteBehindBuffer buffer = this.writeBehind;
+        return buffer == null ? null : buffer.get(key);
+    }
+
+    void setWriteBehind(WriteBehindBuffer writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    WriteBehindBuffer getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * 是否开启延迟写入
+     * @return
+     */
+    public boolean isWriteBehind() {
+        return writeBehind != null;
+    }
+
+    /**
+     * 尚未写入 redis 的key个数
+     * @return 未开启延迟写入时返回 0
+     */
+    public long pendingWriteCount() {
+        WriteBehindBuffer buffer = this.writeBehind;
+        return buffer == null ? 0 : buffer.pendingCount();
+    }
+
+    /**
+     * 统计数据
+     * @return 未开启统计时返回 null
+     */
+    public MultiCacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * 本地缓存的估算大小，包括热点key缓存
+     * @return
+     */
+    public long estimatedLocalSize() {
+        return localStore.estimatedSize() + (hotCache == null ? 0 : hotCache.estimatedSize());
+    }
+
+    public LocalStore getLocalCache() {
+        return localStore;
     }
 }
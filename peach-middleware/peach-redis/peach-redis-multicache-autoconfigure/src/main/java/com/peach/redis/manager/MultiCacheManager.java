@@ -1,19 +1,42 @@
 package com.peach.redis.manager;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peach.common.util.StringUtil;
+import com.peach.redis.common.tool.RedisPipelineExecutor;
 import com.peach.redis.config.CaffeineCacheConfig;
 import com.peach.redis.config.MultiCacheConfig;
+import com.peach.redis.config.WriteBehindConfig;
+import com.peach.redis.constant.MultiCacheConstant;
+import com.peach.redis.guard.KeyGuard;
+import com.peach.redis.key.CacheKeySerializer;
+import com.peach.redis.listener.CacheInvalidationPublisher;
+import com.peach.redis.store.CaffeineLocalStore;
+import com.peach.redis.store.LocalStore;
+import com.peach.redis.store.SharedLocalStore;
+import com.peach.redis.store.ValueWeigher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * @Author Mr Shu
@@ -21,9 +44,9 @@ import java.util.concurrent.TimeUnit;
  * @CreateTime 2025/12/4 17:13
  */
 @Slf4j
-public class MultiCacheManager implements CacheManager {
+public class MultiCacheManager implements CacheManager, DisposableBean {
 
-    private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> cacheMap;
 
     private final RedisTemplate redisTemplate;
 
@@ -31,11 +54,151 @@ public class MultiCacheManager implements CacheManager {
 
     private final Set<String> cacheNames;
 
-    public MultiCacheManager(RedisTemplate redisTemplate,MultiCacheConfig cacheConfig) {
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    /**
+     * 按缓存名称注册的提前刷新加载器
+     */
+    private final ConcurrentMap<String, MultiCacheReloader> reloaders = new ConcurrentHashMap<>();
+
+    /**
+     * 按缓存名称注册的key存在性判断
+     */
+    private final ConcurrentMap<String, KeyGuard> keyGuards = new ConcurrentHashMap<>();
+
+    /**
+     * 提前刷新线程池，未开启提前刷新时为 null
+     */
+    private final ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * 缓存实例创建时的回调，用于为按需创建的缓存注册统计指标
+     */
+    private final List<Consumer<MultiCache>> cacheCreatedListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 缓存实例因空闲被移除时的回调
+     */
+    private final List<Consumer<MultiCache>> cacheRemovedListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 共享一级缓存，未开启时为 null
+     */
+    private final SharedLocalStore sharedStore;
+
+    /**
+     * 按 redis value 序列化后的大小计算一级缓存权重
+     */
+    private final ValueWeigher valueWeigher;
+
+    /**
+     * 延迟写入的刷新线程，未配置延迟写入的缓存名称时为 null
+     */
+    private final ScheduledExecutorService writeBehindScheduler;
+
+    /**
+     * 删除 redis 中缓存数据的清空引擎，所有缓存实例共用
+     */
+    private final CacheClearEngine clearEngine;
+
+    /**
+     * 批量操作执行器，未引入 redis 工具模块时为 null
+     */
+    private volatile RedisPipelineExecutor pipelineExecutor;
+
+    /**
+     * 一级缓存快照，未开启时为 null
+     */
+    private volatile MultiCacheSnapshot snapshot;
+
+    public MultiCacheManager(RedisTemplate redisTemplate, MultiCacheConfig cacheConfig, CacheInvalidationPublisher invalidationPublisher) {
         super();
-        this.redisTemplate = redisTemplate;
+        this.redisTemplate = cacheRedisTemplate(redisTemplate);
         this.cacheConfig = cacheConfig;
         this.cacheNames = cacheConfig.getCacheNames();
+        this.invalidationPublisher = invalidationPublisher;
+        CaffeineCacheConfig caffeineConfig = cacheConfig.getCaffeine();
+        this.refreshExecutor = caffeineConfig != null && caffeineConfig.isRefreshAheadEnabled() ? refreshExecutor(caffeineConfig) : null;
+        this.valueWeigher = new ValueWeigher(redisTemplate.getValueSerializer());
+        WriteBehindConfig writeBehind = cacheConfig.getRedis().getWriteBehind();
+        this.writeBehindScheduler = writeBehind != null && !CollectionUtils.isEmpty(writeBehind.getCacheNames())
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "multicache-write-behind");
+                    thread.setDaemon(true);
+                    return thread;
+                }) : null;
+        this.sharedStore = caffeineConfig != null && caffeineConfig.getShared().isEnabled() ? sharedStore(caffeineConfig) : null;
+        this.clearEngine = new CacheClearEngine(redisTemplate, cacheConfig.getRedis().getClear());
+        this.cacheMap = cacheMap(cacheConfig.getCacheIdleTimeout());
+    }
+
+    /**
+     * 多级缓存专用的 redisTemplate，与传入的 redisTemplate 共用连接工厂与 value 序列化器，
+     * key 使用 {@link CacheKeySerializer} 直接编码，避免每次访问拼接字符串后再编码
+     */
+    private static RedisTemplate cacheRedisTemplate(RedisTemplate redisTemplate) {
+        if (redisTemplate.getKeySerializer() instanceof CacheKeySerializer) {
+            return redisTemplate;
+        }
+        RedisTemplate<Object, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisTemplate.getConnectionFactory());
+        template.setKeySerializer(new CacheKeySerializer());
+        template.setValueSerializer(redisTemplate.getValueSerializer());
+        template.setHashKeySerializer(redisTemplate.getHashKeySerializer());
+        template.setHashValueSerializer(redisTemplate.getHashValueSerializer());
+        template.setStringSerializer(redisTemplate.getStringSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    private SharedLocalStore sharedStore(CaffeineCacheConfig config) {
+        RefreshAheadLoader refreshLoader = refreshExecutor == null ? null
+                : new RefreshAheadLoader(refreshExecutor, name -> (MultiCache) getCache(name));
+        return new SharedLocalStore(config, refreshLoader, valueWeigher);
+    }
+
+    /**
+     * 创建缓存实例容器，配置了空闲时间时空闲的缓存实例会被移除
+     * @param idleTimeout 空闲时间，单位毫秒
+     * @return
+     */
+    private ConcurrentMap<String, Cache> cacheMap(long idleTimeout) {
+        if (idleTimeout <= 0) {
+            return new ConcurrentHashMap<>();
+        }
+        return Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout, TimeUnit.MILLISECONDS)
+                .executor(Runnable::run)
+                .<String, Cache>removalListener((name, cache, cause) -> {
+                    if (cause.wasEvicted() && cache instanceof MultiCache) {
+                        onCacheRemoved((MultiCache) cache);
+                    }
+                })
+                .build()
+                .asMap();
+    }
+
+    private void onCacheRemoved(MultiCache multiCache) {
+        log.debug("remove idle cache instance, the cache name is : {}", multiCache.getName());
+        closeWriteBehind(multiCache);
+        if (sharedStore != null) {
+            // 共享一级缓存中的数据不会随实例回收，需主动清除，避免重新创建的实例读到期间未收到失效通知的旧值
+            multiCache.invalidateLocalAll();
+        }
+        cacheRemovedListeners.forEach(listener -> listener.accept(multiCache));
+    }
+
+    private static ThreadPoolExecutor refreshExecutor(CaffeineCacheConfig config) {
+        int threads = Math.max(1, config.getRefreshThreads());
+        AtomicInteger index = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, config.getRefreshQueueCapacity())),
+                r -> {
+                    Thread thread = new Thread(r, "multicache-refresh-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
     }
 
     @Override
@@ -44,10 +207,90 @@ public class MultiCacheManager implements CacheManager {
         if (cache != null) {
             return cache;
         }
-        cache = new MultiCache(name, redisTemplate, caffeineCache(), cacheConfig);
-        Cache oldCache = cacheMap.putIfAbsent(name, cache);
+        RefreshAheadLoader refreshLoader = refreshExecutor == null || sharedStore != null ? null : new RefreshAheadLoader(refreshExecutor);
+        LocalStore localStore = sharedStore != null ? sharedStore.view(name) : localStore(name, refreshLoader);
+        MultiCache multiCache = new MultiCache(name, redisTemplate, localStore, cacheConfig, invalidationPublisher);
+        multiCache.setReloader(reloaders.get(name));
+        multiCache.setKeyGuard(keyGuards.get(name));
+        multiCache.setClearEngine(clearEngine);
+        multiCache.setPipelineExecutor(pipelineExecutor);
+        if (refreshLoader != null) {
+            refreshLoader.bind(multiCache);
+        }
+        Cache oldCache = cacheMap.putIfAbsent(name, multiCache);
+        if (oldCache != null) {
+            return oldCache;
+        }
         log.debug("create cache instance, the cache name is : {}", name);
-        return oldCache == null ? cache : oldCache;
+        WriteBehindConfig writeBehind = cacheConfig.getRedis().getWriteBehind();
+        if (writeBehindScheduler != null && writeBehind.isEnabled(name)) {
+            multiCache.setWriteBehind(new WriteBehindBuffer(multiCache, writeBehind, writeBehindScheduler));
+        }
+        cacheCreatedListeners.forEach(listener -> listener.accept(multiCache));
+        return multiCache;
+    }
+
+    /**
+     * 监听缓存实例创建，已创建的缓存实例会立即回调
+     * @param listener 回调
+     */
+    public void onCacheCreated(Consumer<MultiCache> listener) {
+        cacheCreatedListeners.add(listener);
+        for (Cache cache : cacheMap.values()) {
+            listener.accept((MultiCache) cache);
+        }
+    }
+
+    /**
+     * 监听缓存实例因空闲被移除
+     * @param listener 回调
+     */
+    public void onCacheRemoved(Consumer<MultiCache> listener) {
+        cacheRemovedListeners.add(listener);
+    }
+
+    /**
+     * 注册key存在性判断，判定不存在的key不查询 redis 也不加载
+     * @param cacheName 缓存名称
+     * @param keyGuard key存在性判断
+     */
+    public void registerKeyGuard(String cacheName, KeyGuard keyGuard) {
+        keyGuards.put(cacheName, keyGuard);
+        Cache cache = cacheMap.get(cacheName);
+        if (cache instanceof MultiCache) {
+            ((MultiCache) cache).setKeyGuard(keyGuard);
+        }
+    }
+
+    /**
+     * 注册提前刷新加载器，同一个缓存名称重复注册时覆盖
+     * @param reloader 加载器
+     */
+    public void registerReloader(MultiCacheReloader reloader) {
+        reloaders.put(reloader.cacheName(), reloader);
+        Cache cache = cacheMap.get(reloader.cacheName());
+        if (cache instanceof MultiCache) {
+            ((MultiCache) cache).setReloader(reloader);
+        }
+    }
+
+    /**
+     * 注册提前刷新加载器
+     * @param cacheName 缓存名称
+     * @param reloader 加载函数
+     */
+    public void registerReloader(String cacheName, Function<Object, Object> reloader) {
+        registerReloader(new MultiCacheReloader() {
+            @Override
+            public String cacheName() {
+                return cacheName;
+            }
+
+            @Override
+            public Object reload(Object key) {
+                return reloader.apply(key);
+            }
+        });
     }
 
     @Override
@@ -56,12 +299,32 @@ public class MultiCacheManager implements CacheManager {
     }
 
     /**
-     * 创建 caffeine 缓存
+     * 创建缓存名称独占的一级缓存，合并按缓存名称覆盖的配置
+     * @param name 缓存名称
+     * @param refreshLoader 提前刷新加载器，为空时不开启提前刷新
      * @return
      */
-    private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache() {
-        return Optional.ofNullable(cacheConfig)
+    private LocalStore localStore(String name, RefreshAheadLoader refreshLoader) {
+        CaffeineCacheConfig config = Optional.ofNullable(cacheConfig)
                 .map(MultiCacheConfig::getCaffeine)
+                .map(caffeine -> caffeine.forCache(name))
+                .orElseThrow(() -> new IllegalArgumentException("Cache configuration is unavailable"));
+        boolean weighBySize = config.getMaximumWeight() > 0;
+        ValueWeigher weigher = weighBySize || config.getMaximumValueSize() > 0 ? valueWeigher : null;
+        return new CaffeineLocalStore(caffeineCache(config, refreshLoader, weighBySize), weigher, config.getMaximumValueSize());
+    }
+
+    /**
+     * 创建 caffeine 缓存
+     * @param caffeineConfig caffeine 配置
+     * @param refreshLoader 提前刷新加载器，为空时不开启提前刷新
+     * @param weighBySize 是否按序列化大小限制容量
+     * @return
+     */
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache(CaffeineCacheConfig caffeineConfig,
+                                                                                 RefreshAheadLoader refreshLoader,
+                                                                                 boolean weighBySize) {
+        return Optional.of(caffeineConfig)
                 .map(config -> {
 
                     Caffeine<Object, Object> builder = Caffeine.newBuilder();
@@ -75,14 +338,28 @@ public class MultiCacheManager implements CacheManager {
                     Optional.of(config.getInitialCapacity()).filter(c -> c > 0)
                             .ifPresent(builder::initialCapacity);
 
-                    Optional.of(config.getMaximumSize()).filter(s -> s > 0)
-                            .ifPresent(builder::maximumSize);
+                    if (weighBySize) {
+                        builder.maximumWeight(config.getMaximumWeight())
+                                .weigher((key, value) -> valueWeigher.weigh(value));
+                    } else {
+                        Optional.of(config.getMaximumSize()).filter(s -> s > 0)
+                                .ifPresent(builder::maximumSize);
+                    }
 
                     Optional.ofNullable(config.getKeyStrength())
                             .ifPresent(caffeineStrength -> handleKeyStrength(builder, caffeineStrength));
 
                     Optional.ofNullable(config.getValueStrength())
                             .ifPresent(caffeineStrength -> handleValueStrength(builder, caffeineStrength));
+
+                    if (cacheConfig.isMetricsEnabled()) {
+                        builder.recordStats();
+                    }
+
+                    if (refreshLoader != null) {
+                        builder.refreshAfterWrite(config.getRefreshAfterWrite(), TimeUnit.MILLISECONDS);
+                        return builder.build(refreshLoader);
+                    }
                     return builder.build();
                 }).orElseThrow(() -> new IllegalArgumentException("Cache configuration is unavailable"));
     }
@@ -99,8 +376,11 @@ public class MultiCacheManager implements CacheManager {
                 builder.weakKeys();
                 break;
             case STRONG:
-                log.error("Caffeine does not support key soft references");
-                throw new UnsupportedOperationException("Caffeine does not support key soft references");
+                // caffeine 默认即为强引用，弱引用 key 按 == 比较，反序列化得到的 key 无法命中
+                break;
+            case SOFT:
+                log.error("caffeine does not support soft keys, use strong keys instead");
+                break;
             default:
                 log.error("The citation method is incorrect");
         }
@@ -117,9 +397,12 @@ public class MultiCacheManager implements CacheManager {
             case WEAK:
                 builder.weakValues();
                 break;
-            case STRONG:
+            case SOFT:
                 builder.softValues();
                 break;
+            case STRONG:
+                // caffeine 默认即为强引用，maximumWeight 字节上限不会因 GC 回收而失效
+                break;
             default:
                 // 可记录日志或什么都不做
                 log.error("The citation method is incorrect");
@@ -138,8 +421,174 @@ public class MultiCacheManager implements CacheManager {
             return;
         }
         MultiCache multiCache = (MultiCache) cache;
-        if (multiCache.getLocalCache().hashCode() != sender) {
+        if (isFromOtherNode(sender)) {
+            recordInvalidationReceived(multiCache);
             multiCache.clearLocal(key);
         }
     }
+
+    /**
+     * 其他节点清空了缓存，更新代数并清除本地缓存
+     * @param cacheName 缓存名称
+     * @param generation 清空后的代数
+     * @param sender 发送者
+     */
+    public void applyGeneration(String cacheName, long generation, Integer sender) {
+        Cache cache = cacheMap.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (isFromOtherNode(sender)) {
+            MultiCache multiCache = (MultiCache) cache;
+            recordInvalidationReceived(multiCache);
+            multiCache.applyGeneration(generation);
+        }
+    }
+
+    private boolean isFromOtherNode(Integer sender) {
+        return sender == null || sender != invalidationPublisher.getSenderId();
+    }
+
+    /**
+     * 批量清除本地缓存
+     * @param cacheName 缓存名称
+     * @param keys 缓存键集合
+     * @param sender 发送者
+     */
+    public void clearLocal(String cacheName, Collection<Object> keys, Integer sender) {
+        Cache cache = cacheMap.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        MultiCache multiCache = (MultiCache) cache;
+        if (isFromOtherNode(sender)) {
+            recordInvalidationReceived(multiCache);
+            multiCache.clearLocal(keys);
+        }
+    }
+
+    /**
+     * 根据 redis 推送的失效 key 清理本地缓存，缓存名称中可能包含分隔符，
+     * 按每个分隔符位置尝试匹配已创建的缓存，可能匹配到多个缓存时都清理
+     * @param redisKeys redis key 集合
+     */
+    public void clearLocalByRedisKeys(Collection<String> redisKeys) {
+        String prefix = StringUtil.isNotBlank(cacheConfig.getCachePrefix())
+                ? cacheConfig.getCachePrefix() + MultiCacheConstant.REDIS_KEY_SEPARATOR : "";
+        for (String redisKey : redisKeys) {
+            if (!redisKey.startsWith(prefix)) {
+                continue;
+            }
+            String rest = redisKey.substring(prefix.length());
+            int separator = rest.indexOf(MultiCacheConstant.REDIS_KEY_SEPARATOR);
+            while (separator > 0) {
+                Cache cache = cacheMap.get(rest.substring(0, separator));
+                if (cache != null) {
+                    MultiCache multiCache = (MultiCache) cache;
+                    recordInvalidationReceived(multiCache);
+                    multiCache.clearLocalByRedisSuffix(rest.substring(separator + 1));
+                }
+                separator = rest.indexOf(MultiCacheConstant.REDIS_KEY_SEPARATOR, separator + 1);
+            }
+        }
+    }
+
+    /**
+     * 清除所有缓存实例的本地缓存
+     */
+    public void clearAllLocal() {
+        for (Cache cache : cacheMap.values()) {
+            ((MultiCache) cache).invalidateLocalAll();
+        }
+    }
+
+    private void recordInvalidationReceived(MultiCache multiCache) {
+        if (multiCache.getStats() != null) {
+            multiCache.getStats().recordInvalidationReceived();
+        }
+    }
+
+    /**
+     * 停止延迟写入并将剩余的key写入 redis
+     * @param multiCache 缓存实例
+     */
+    private void closeWriteBehind(MultiCache multiCache) {
+        WriteBehindBuffer writeBehind = multiCache.getWriteBehind();
+        if (writeBehind == null) {
+            return;
+        }
+        try {
+            writeBehind.close();
+        } catch (RuntimeException e) {
+            log.error("flush write behind cache failed, the cache name is : {}", multiCache.getName(), e);
+        }
+    }
+
+    /**
+     * 异步清空缓存
+     * @param cacheName 缓存名称
+     * @return 清空进度
+     */
+    public CacheClearProgress clearAsync(String cacheName) {
+        return ((MultiCache) getCache(cacheName)).clearAsync();
+    }
+
+    /**
+     * 清空缓存时使用 redis 工具模块的批量删除，集群模式下的批量写入也通过其按节点 pipeline 发送
+     * @param pipelineExecutor 批量操作执行器
+     */
+    public void setPipelineExecutor(RedisPipelineExecutor pipelineExecutor) {
+        this.pipelineExecutor = pipelineExecutor;
+        clearEngine.setPipelineExecutor(pipelineExecutor);
+        for (Cache cache : cacheMap.values()) {
+            ((MultiCache) cache).setPipelineExecutor(pipelineExecutor);
+        }
+    }
+
+    public void setSnapshot(MultiCacheSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * 从快照加载一级缓存，未开启快照或加载失败时返回 0
+     * @return 加载的条数
+     */
+    public int loadSnapshot() {
+        if (snapshot == null) {
+            return 0;
+        }
+        try {
+            return snapshot.load(this);
+        } catch (Exception e) {
+            log.error("load multicache snapshot failed", e);
+            return 0;
+        }
+    }
+
+    private void saveSnapshot() {
+        List<MultiCache> caches = new ArrayList<>(cacheMap.size());
+        cacheMap.values().forEach(cache -> caches.add((MultiCache) cache));
+        try {
+            int count = snapshot.save(caches);
+            log.info("save multicache snapshot successful, entries size : {}", count);
+        } catch (Exception e) {
+            log.error("save multicache snapshot failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+        clearEngine.shutdown();
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.shutdown();
+            cacheMap.values().forEach(cache -> closeWriteBehind((MultiCache) cache));
+        }
+        // 延迟写入的key写入 redis 后再保存，保存时读取的过期时间才是最新的
+        if (snapshot != null) {
+            saveSnapshot();
+        }
+    }
 }
@@ -1,13 +1,21 @@
 package com.peach.redis.manager;
 
 
+import com.peach.redis.hotkey.HotKey;
+import com.peach.redis.warmup.CacheWarmer;
+import com.peach.redis.warmup.WarmUpProgress;
+import com.peach.redis.warmup.WarmUpSource;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -24,11 +32,18 @@ public class MultiCacheManagerService {
 
     private MultiCacheManager cacheManager;
 
+    private CacheWarmer cacheWarmer;
+
 
     public MultiCacheManagerService(MultiCacheManager cacheManager) {
         this.cacheManager = cacheManager;
     }
 
+    public MultiCacheManagerService(MultiCacheManager cacheManager, CacheWarmer cacheWarmer) {
+        this.cacheManager = cacheManager;
+        this.cacheWarmer = cacheWarmer;
+    }
+
     /**
      * 获取缓存管理器
      */
@@ -69,18 +84,67 @@ public class MultiCacheManagerService {
     }
 
     /**
-     * 批量存入缓存
+     * 批量存入缓存，多级缓存通过一次 pipeline 写入 redis
      */
     public void putAll(String cacheName, Map<?, ?> data) {
         if (CollectionUtils.isEmpty(data)) {
             return;
         }
         Cache cache = getCache(cacheName);
-        if (cache != null) {
+        if (cache instanceof MultiCache) {
+            ((MultiCache) cache).putAll(data);
+        } else if (cache != null) {
             data.forEach(cache::put);
         }
     }
 
+    /**
+     * 批量获取缓存值，未命中的 key 不包含在结果中
+     */
+    @NonNull
+    public <T> Map<Object, T> getAll(String cacheName, Collection<?> keys) {
+        return getAll(cacheName, keys, null);
+    }
+
+    /**
+     * 批量获取缓存值，两级缓存都未命中的 key 通过 bulkLoader 一次性加载并缓存
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T> Map<Object, T> getAll(String cacheName, Collection<?> keys, Function<Collection<Object>, Map<?, T>> bulkLoader) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return new LinkedHashMap<>();
+        }
+        Cache cache = getCache(cacheName);
+        if (cache == null) {
+            return new LinkedHashMap<>();
+        }
+        if (cache instanceof MultiCache) {
+            Function<Collection<Object>, Map<?, ?>> loader = bulkLoader == null ? null : bulkLoader::apply;
+            return (Map<Object, T>) ((MultiCache) cache).getAll(keys, loader);
+        }
+        Map<Object, T> result = new LinkedHashMap<>(keys.size());
+        List<Object> misses = new ArrayList<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null) {
+                result.put(key, (T) wrapper.get());
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty() && bulkLoader != null) {
+            Map<?, T> loaded = bulkLoader.apply(misses);
+            if (loaded != null) {
+                loaded.forEach((key, value) -> {
+                    cache.put(key, value);
+                    result.put(key, value);
+                });
+            }
+        }
+        return result;
+    }
+
     /**
      * 获取缓存值
      */
@@ -198,6 +262,29 @@ public class MultiCacheManagerService {
         return false;
     }
 
+    /**
+     * 存在时根据当前值计算新值并原子写入，返回 null 时删除
+     */
+    @Nullable
+    public <T> T computeIfPresent(String cacheName, Object key, Function<? super T, ? extends T> remapping) {
+        Cache cache = getCache(cacheName);
+        if (cache instanceof MultiCache) {
+            return ((MultiCache) cache).computeIfPresent(key, remapping);
+        }
+        return null;
+    }
+
+    /**
+     * 原子自增，key 不存在时从 0 开始，已存在的值必须是十进制整数文本，见 {@link MultiCache#increment}
+     */
+    public long increment(String cacheName, Object key, long delta) {
+        Cache cache = getCache(cacheName);
+        if (!(cache instanceof MultiCache)) {
+            throw new IllegalStateException("increment is not supported, the cache name is : " + cacheName);
+        }
+        return ((MultiCache) cache).increment(key, delta);
+    }
+
     /**
      * 获取缓存值，带默认值
      */
@@ -267,6 +354,18 @@ public class MultiCacheManagerService {
         }
     }
 
+    /**
+     * 查询热点key，按估算访问次数从高到低排序
+     */
+    @NonNull
+    public List<HotKey> hotKeys(String cacheName, int topN) {
+        Cache cache = getCache(cacheName);
+        if (cache instanceof MultiCache) {
+            return ((MultiCache) cache).hotKeys(topN);
+        }
+        return new ArrayList<>();
+    }
+
     /**
      * 预热缓存
      */
@@ -277,9 +376,42 @@ public class MultiCacheManagerService {
     }
 
     /**
-     * 异步清除缓存（适用于大型缓存）
+     * 分页异步预热缓存，按批次并行通过 pipeline 写入，可按每秒写入个数限流
+     * @param cacheName 缓存名称
+     * @param source 分页数据源
+     * @return 预热进度
      */
-    public  void asyncClear(String cacheName) {
-        new Thread(() -> clear(cacheName), "cache-clear-thread-" + cacheName).start();
+    @NonNull
+    public WarmUpProgress warmUp(String cacheName, WarmUpSource source) {
+        return checkCacheWarmer().warmUp(cacheName, source);
+    }
+
+    /**
+     * 异步预热缓存，逐页读取迭代器中的数据
+     * @param cacheName 缓存名称
+     * @param pages 逐页返回预热数据的迭代器
+     * @return 预热进度
+     */
+    @NonNull
+    public WarmUpProgress warmUp(String cacheName, Iterator<? extends Map<?, ?>> pages) {
+        return checkCacheWarmer().warmUp(cacheName, pages);
+    }
+
+    private CacheWarmer checkCacheWarmer() {
+        if (cacheWarmer == null) {
+            throw new IllegalStateException("CacheWarmer is not initialized.");
+        }
+        return cacheWarmer;
+    }
+
+    /**
+     * 异步清除缓存（适用于大型缓存），在共享的清空线程池中通过 SCAN + UNLINK 增量删除
+     * @param cacheName 缓存名称
+     * @return 清空进度，可查询进度或取消
+     */
+    @NonNull
+    public CacheClearProgress asyncClear(String cacheName) {
+        checkCacheManager();
+        return cacheManager.clearAsync(cacheName);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.peach.redis.manager;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/12 09:30
+ * @Description 缓存提前刷新时使用的加载器，按缓存名称注册，
+ * 声明为 spring bean 时自动注册，也可以通过 {@link MultiCacheManager#registerReloader} 手动注册
+ */
+public interface MultiCacheReloader {
+
+    /**
+     * 加载器对应的缓存名称
+     * @return
+     */
+    String cacheName();
+
+    /**
+     * 重新加载缓存值
+     * @param key 缓存key
+     * @return 缓存值
+     * @throws Exception
+     */
+    Object reload(Object key) throws Exception;
+}
@@ -0,0 +1,270 @@
+package com.peach.redis.manager;
+
+import com.peach.redis.config.SnapshotConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/26 09:50
+ * @Description 一级缓存快照
+ * 文件格式：魔数、版本、生成时间，之后按缓存名称依次写入 名称、代数、条数 以及每条数据的 key、value、redis 剩余过期时间。
+ * value 使用 redis 的序列化器，与从 redis 读取到的对象一致；key 只支持 String、Long、Integer、UUID，按类型标记写入，
+ * 读取时不做任何多态反序列化，其他类型的 key 不保存。
+ * 先流式写入临时文件再替换，读取时通过内存映射
+ */
+@Slf4j
+public class MultiCacheSnapshot {
+
+    private static final int MAGIC = 0x504D4353;
+
+    private static final byte VERSION = 2;
+
+    /**
+     * 魔数、版本与生成时间之后为缓存名称个数，写入完成后回填
+     */
+    private static final int SECTIONS_OFFSET = 13;
+
+    private static final byte KEY_STRING = 1;
+
+    private static final byte KEY_LONG = 2;
+
+    private static final byte KEY_INTEGER = 3;
+
+    private static final byte KEY_UUID = 4;
+
+    private final Path file;
+
+    private final SnapshotConfig config;
+
+    private final RedisSerializer<Object> valueSerializer;
+
+    public MultiCacheSnapshot(Path file, SnapshotConfig config, RedisSerializer<Object> valueSerializer) {
+        this.file = file;
+        this.config = config;
+        this.valueSerializer = valueSerializer;
+    }
+
+    /**
+     * 保存快照
+     * @param caches 缓存实例
+     * @return 保存的条数
+     */
+    public int save(Collection<MultiCache> caches) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null && !Files.isDirectory(parent)) {
+            createPrivateDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int total = 0;
+        int sections = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(0);
+            for (MultiCache cache : caches) {
+                int count = writeSection(out, cache);
+                if (count > 0) {
+                    sections++;
+                    total += count;
+                }
+            }
+            out.flush();
+            ByteBuffer sectionCount = ByteBuffer.allocate(Integer.BYTES).putInt(0, sections);
+            channel.write(sectionCount, SECTIONS_OFFSET);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return total;
+    }
+
+    /**
+     * 创建只有当前用户可访问的目录，文件系统不支持 posix 权限时使用默认权限
+     */
+    private static void createPrivateDirectories(Path dir) throws IOException {
+        if (dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(dir);
+        }
+    }
+
+    /**
+     * 写入单个缓存名称的数据
+     * @return 写入的条数，为 0 时不写入
+     */
+    private int writeSection(DataOutputStream out, MultiCache cache) throws IOException {
+        Map<Object, Object> entries = cache.hottestLocal(Math.max(0, config.getEntriesPerCache()));
+        List<Object> keys = new ArrayList<>(entries.size());
+        for (Object key : entries.keySet()) {
+            if (isSupportedKey(key)) {
+                keys.add(key);
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<Long> ttls = cache.remainingTtls(keys);
+        List<Integer> indexes = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            // 不存在或未设置过期时间的 key 启动时无法判断是否已变更，不保存；空值占位不保存
+            if (ttls.get(i) > 0 && !(entries.get(keys.get(i)) instanceof NullValue)) {
+                indexes.add(i);
+            }
+        }
+        if (indexes.isEmpty()) {
+            return 0;
+        }
+        writeBytes(out, cache.getName().getBytes(StandardCharsets.UTF_8));
+        out.writeLong(cache.snapshotGeneration());
+        out.writeInt(indexes.size());
+        for (int i : indexes) {
+            writeKey(out, keys.get(i));
+            writeBytes(out, valueSerializer.serialize(entries.get(keys.get(i))));
+            out.writeLong(ttls.get(i));
+        }
+        return indexes.size();
+    }
+
+    /**
+     * 加载快照到一级缓存，加载后删除快照文件
+     * @param manager 缓存管理器
+     * @return 加载的条数
+     */
+    public int load(MultiCacheManager manager) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 17 || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                log.warn("unrecognized multicache snapshot, the file is : {}", file);
+                return 0;
+            }
+            long age = System.currentTimeMillis() - buffer.getLong();
+            if (age > config.getMaxAge().toMillis() || age < 0) {
+                log.info("multicache snapshot expired, the age is : {} ms", age);
+                return 0;
+            }
+            int loaded = 0;
+            int sections = buffer.getInt();
+            for (int i = 0; i < sections; i++) {
+                loaded += loadSection(manager, buffer, age);
+            }
+            return loaded;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private int loadSection(MultiCacheManager manager, ByteBuffer buffer, long age) throws IOException {
+        String cacheName = new String(readBytes(buffer), StandardCharsets.UTF_8);
+        long generation = buffer.getLong();
+        int count = buffer.getInt();
+        List<Object> keys = new ArrayList<>(count);
+        List<byte[]> rawValues = new ArrayList<>(count);
+        List<Long> ttls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(readKey(buffer));
+            rawValues.add(readBytes(buffer));
+            ttls.add(buffer.getLong());
+        }
+        MultiCache cache = (MultiCache) manager.getCache(cacheName);
+        if (cache == null || cache.snapshotGeneration() != generation) {
+            log.info("multicache snapshot skipped, the generation of cache {} has changed", cacheName);
+            return 0;
+        }
+        // 未变更的 key 剩余过期时间应约等于保存时的剩余时间减去经过的时间，重新写入过的 key 过期时间会被重置
+        List<Long> currentTtls = cache.remainingTtls(keys);
+        long tolerance = config.getTtlTolerance().toMillis();
+        Map<Object, Object> storeValues = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            long current = currentTtls.get(i);
+            long expected = ttls.get(i) - age;
+            if (current > 0 && Math.abs(current - expected) <= tolerance) {
+                Object value = valueSerializer.deserialize(rawValues.get(i));
+                if (value != null) {
+                    storeValues.put(keys.get(i), value);
+                }
+            }
+        }
+        cache.putLocal(storeValues);
+        log.debug("load {} of {} entries from multicache snapshot, the cache name is : {}", storeValues.size(), count, cacheName);
+        return storeValues.size();
+    }
+
+    private static boolean isSupportedKey(Object key) {
+        return key instanceof String || key instanceof Long || key instanceof Integer || key instanceof UUID;
+    }
+
+    private static void writeKey(DataOutputStream out, Object key) throws IOException {
+        if (key instanceof String) {
+            out.writeByte(KEY_STRING);
+            writeBytes(out, ((String) key).getBytes(StandardCharsets.UTF_8));
+        } else if (key instanceof Long) {
+            out.writeByte(KEY_LONG);
+            out.writeLong((Long) key);
+        } else if (key instanceof Integer) {
+            out.writeByte(KEY_INTEGER);
+            out.writeInt((Integer) key);
+        } else {
+            UUID uuid = (UUID) key;
+            out.writeByte(KEY_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static Object readKey(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+            case KEY_STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case KEY_LONG:
+                return buffer.getLong();
+            case KEY_INTEGER:
+                return buffer.getInt();
+            case KEY_UUID:
+                return new UUID(buffer.getLong(), buffer.getLong());
+            default:
+                throw new IOException("unsupported multicache snapshot key type : " + type);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        byte[] content = bytes == null ? new byte[0] : bytes;
+        out.writeInt(content.length);
+        out.write(content);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,33 @@
+package com.peach.redis.manager;
+
+import com.peach.initialize.base.AbstractAppStartedEventHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/26 10:30
+ * @Description 应用启动后从快照恢复一级缓存，在应用就绪、开始接收流量之前执行
+ */
+@Slf4j
+public class MultiCacheSnapshotLoader extends AbstractAppStartedEventHandler {
+
+    private final MultiCacheManager cacheManager;
+
+    public MultiCacheSnapshotLoader(MultiCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Integer executeOrder() {
+        return 0;
+    }
+
+    @Override
+    public void executeInitialize(ConfigurableApplicationContext context) {
+        long start = System.currentTimeMillis();
+        int count = cacheManager.loadSnapshot();
+        log.info("load multicache snapshot completed, entries size : {}, cost : {} ms", count, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,79 @@
+package com.peach.redis.manager;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.peach.redis.store.SharedKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/12 09:45
+ * @Description caffeine 提前刷新加载器
+ * caffeine 保证同一个key同一时刻只有一个刷新任务，刷新期间仍返回旧值；
+ * 刷新任务提交到有界线程池，线程池饱和时跳过本次刷新
+ */
+@Slf4j
+class RefreshAheadLoader implements CacheLoader<Object, Object> {
+
+    private final Executor refreshExecutor;
+
+    private volatile MultiCache cache;
+
+    /**
+     * 共享一级缓存时按缓存名称获取缓存实例
+     */
+    private final Function<String, MultiCache> cacheResolver;
+
+    RefreshAheadLoader(Executor refreshExecutor) {
+        this(refreshExecutor, null);
+    }
+
+    RefreshAheadLoader(Executor refreshExecutor, Function<String, MultiCache> cacheResolver) {
+        this.refreshExecutor = refreshExecutor;
+        this.cacheResolver = cacheResolver;
+    }
+
+    void bind(MultiCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Object load(Object key) {
+        // MultiCache 只通过 getIfPresent 读取一级缓存，未命中由 MultiCache 自行加载
+        return null;
+    }
+
+    @Override
+    public Object reload(Object key, Object oldValue) throws Exception {
+        if (key instanceof SharedKey && cacheResolver != null) {
+            SharedKey sharedKey = (SharedKey) key;
+            MultiCache multiCache = cacheResolver.apply(sharedKey.getCacheName());
+            return multiCache == null ? oldValue : multiCache.refresh(sharedKey.getKey());
+        }
+        MultiCache multiCache = this.cache;
+        return multiCache == null ? oldValue : multiCache.refresh(key);
+    }
+
+    @Override
+    public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor executor) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    future.complete(reload(key, oldValue));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("refresh executor is saturated, skip refresh, the key is : {}", key);
+            future.complete(oldValue);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,86 @@
+package com.peach.redis.manager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/08 14:05
+ * @Description 单飞加载：同一个key并发未命中时只执行一次加载，其他线程等待并共享加载结果。
+ * 进行中的加载以 CompletableFuture 登记，加载结束后立即移除，不会随key数量增长而常驻内存。
+ * 加载器在同一线程内再次加载同一个key时抛出 IllegalStateException，避免等待自己的加载结果而死锁
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行加载，同一个key同一时刻只有一个线程真正执行 loader
+     *
+     * @param key    缓存key
+     * @param loader 加载器
+     * @return 加载结果
+     * @throws Exception loader 抛出的异常，等待中的线程会收到同一个异常
+     * @throws IllegalStateException 加载器在同一线程内再次加载同一个key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Callable<T> loader) throws Exception {
+        Flight future = new Flight(Thread.currentThread());
+        Flight existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            if (existing.owner == Thread.currentThread()) {
+                throw new IllegalStateException("recursive load");
+            }
+            return (T) await(existing);
+        }
+        try {
+            T value = loader.call();
+            future.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 当前进行中的加载个数
+     * @return
+     */
+    public int inFlightSize() {
+        return inFlight.size();
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 进行中的加载，记录执行加载的线程
+     */
+    private static final class Flight extends CompletableFuture<Object> {
+
+        private final Thread owner;
+
+        private Flight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.peach.redis.manager;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/29 10:00
+ * @Description 带版本的缓存值，版本为 redis 中序列化后数据的 SHA-1，用于 {@link MultiCache#compareAndSet}
+ */
+public class VersionedValue<T> {
+
+    private final T value;
+
+    private final String version;
+
+    VersionedValue(T value, String version) {
+        this.value = value;
+        this.version = version;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
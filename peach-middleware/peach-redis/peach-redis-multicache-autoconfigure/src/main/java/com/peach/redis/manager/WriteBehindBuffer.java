@@ -0,0 +1,169 @@
+package com.peach.redis.manager;
+
+import com.peach.redis.config.WriteBehindConfig;
+import com.peach.redis.metrics.MultiCacheStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/23 09:50
+ * @Description 单个缓存名称的待写队列
+ * 同一个key只保留最新的值与最早的入队时间，刷新时只移除未被再次写入的key，期间的新值留到下一次刷新。
+ * 每批写入持有当前实例的锁，移除与清空同样需要获取该锁，返回时正在写入的批次已完成，
+ * 调用方随后删除 redis 中的key，不会被刷新线程写回旧值
+ */
+@Slf4j
+class WriteBehindBuffer {
+
+    private final MultiCache cache;
+
+    private final ConcurrentMap<Object, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+
+    private final int maxPending;
+
+    private final ScheduledFuture<?> flushTask;
+
+    /**
+     * 统计数据，未开启统计时为 null
+     */
+    private final MultiCacheStats stats;
+
+    WriteBehindBuffer(MultiCache cache, WriteBehindConfig config, ScheduledExecutorService scheduler) {
+        this.cache = cache;
+        this.stats = cache.getStats();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.maxPending = Math.max(1, config.getMaxPending());
+        long interval = Math.max(1, config.getFlushInterval().toMillis());
+        this.flushTask = scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 放入待写队列
+     * @param key 缓存key
+     * @param storeValue 存储值
+     * @return 队列已满时返回 false，由调用方同步写入
+     */
+    boolean offer(Object key, Object storeValue) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            if (stats != null) {
+                stats.recordWriteBehindFallback();
+            }
+            return false;
+        }
+        long now = System.nanoTime();
+        pending.merge(key, new PendingWrite(storeValue, now), (old, latest) -> new PendingWrite(storeValue, old.enqueuedAt));
+        return true;
+    }
+
+    /**
+     * 获取尚未写入 redis 的值
+     * @param key 缓存key
+     * @return 不存在时返回 null
+     */
+    Object get(Object key) {
+        PendingWrite write = pending.get(key);
+        return write == null ? null : write.value;
+    }
+
+    /**
+     * 移除待写的key，等待正在写入的批次完成后返回
+     * @param key 缓存key
+     * @return 移除的值，不存在时返回 null
+     */
+    synchronized Object remove(Object key) {
+        PendingWrite write = pending.remove(key);
+        return write == null ? null : write.value;
+    }
+
+    synchronized void removeAll(Collection<?> keys) {
+        keys.forEach(pending::remove);
+    }
+
+    synchronized void clear() {
+        pending.clear();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("write behind flush failed, the cache name is : {}", cache.getName(), e);
+        }
+    }
+
+    /**
+     * 将待写的key分批写入 redis
+     */
+    void flush() {
+        // 只处理开始时已有的key数量对应的批次，持续写入时不会一直占用刷新线程
+        for (int rounds = pending.size() / batchSize + 1; rounds > 0; rounds--) {
+            if (!flushBatch()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 写入一批待写的key，复制、写入与移除在同一次持有锁期间完成，只阻塞同时发生的移除与清空
+     * @return 是否还有待写的key
+     */
+    private synchronized boolean flushBatch() {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        Map<Object, PendingWrite> batch = new LinkedHashMap<>();
+        for (Map.Entry<Object, PendingWrite> entry : pending.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                break;
+            }
+        }
+        Map<Object, Object> storeValues = new LinkedHashMap<>(batch.size());
+        batch.forEach((key, write) -> storeValues.put(key, write.value));
+        cache.writeRedis(storeValues);
+        long now = System.nanoTime();
+        batch.forEach((key, write) -> {
+            // 刷新期间被再次写入的key保留，下一次刷新时写入新值
+            if (pending.remove(key, write) && stats != null) {
+                stats.recordWriteBehindFlush(now - write.enqueuedAt);
+            }
+        });
+        return !pending.isEmpty();
+    }
+
+    /**
+     * 停止定时刷新并写入剩余的key
+     */
+    void close() {
+        flushTask.cancel(false);
+        flush();
+    }
+
+    long pendingCount() {
+        return pending.size();
+    }
+
+    private static final class PendingWrite {
+
+        private final Object value;
+
+        private final long enqueuedAt;
+
+        private PendingWrite(Object value, long enqueuedAt) {
+            this.value = value;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.peach.redis.metrics;
+
+import com.peach.redis.listener.CacheInvalidationPublisher;
+import com.peach.redis.manager.MultiCache;
+import com.peach.redis.manager.MultiCacheManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/19 10:30
+ * @Description 将多级缓存的统计数据注册到 micrometer，指标以 cache 标签区分缓存名称，
+ * 运行期间按需创建的缓存在创建时注册
+ */
+public class MultiCacheMetrics implements MeterBinder {
+
+    private static final String TAG_CACHE = "cache";
+
+    private final MultiCacheManager cacheManager;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    public MultiCacheMetrics(MultiCacheManager cacheManager, CacheInvalidationPublisher invalidationPublisher) {
+        this.cacheManager = cacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    /**
+     * 每个缓存实例注册的指标，缓存实例因空闲被移除时一并移除
+     */
+    private final ConcurrentMap<MultiCache, List<Meter>> cacheMeters = new ConcurrentHashMap<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheManager.onCacheRemoved(cache -> {
+            List<Meter> meters = cacheMeters.remove(cache);
+            if (meters != null) {
+                meters.forEach(registry::remove);
+            }
+        });
+        cacheManager.onCacheCreated(cache -> {
+            if (cache.getStats() != null) {
+                cacheMeters.put(cache, bindCache(registry, cache));
+            }
+        });
+    }
+
+    private List<Meter> bindCache(MeterRegistry registry, MultiCache cache) {
+        MultiCacheStats stats = cache.getStats();
+        List<Meter> meters = new ArrayList<>();
+        String cacheName = cache.getName();
+        Tags tags = Tags.of(TAG_CACHE, cacheName);
+
+        meters.add(FunctionCounter.builder("multicache.gets", stats, MultiCacheStats::l1HitCount)
+                .tags(tags).tag("result", "l1_hit")
+                .description("一级缓存命中次数")
+                .register(registry));
+        meters.add(FunctionCounter.builder("multicache.gets", stats, MultiCacheStats::l2HitCount)
+                .tags(tags).tag("result", "l2_hit")
+                .description("一级缓存未命中、redis 命中次数")
+                .register(registry));
+        meters.add(FunctionCounter.builder("multicache.gets", stats, MultiCacheStats::missCount)
+                .tags(tags).tag("result", "miss")
+                .description("两级缓存均未命中次数")
+                .register(registry));
+
+        meters.add(FunctionTimer.builder("multicache.loads", stats, MultiCacheStats::loadCount,
+                        MultiCacheStats::totalLoadNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("回源加载次数及耗时")
+                .register(registry));
+        meters.add(FunctionCounter.builder("multicache.load.failures", stats, MultiCacheStats::loadFailureCount)
+                .tags(tags)
+                .description("回源加载失败次数")
+                .register(registry));
+
+        meters.add(FunctionCounter.builder("multicache.evictions", stats, MultiCacheStats::evictionCount)
+                .tags(tags)
+                .description("主动删除缓存次数")
+                .register(registry));
+        meters.add(FunctionCounter.builder("multicache.l1.evictions", cache, c -> c.getLocalCache().evictionCount())
+                .tags(tags)
+                .description("一级缓存因容量或过期淘汰的条数")
+                .register(registry));
+        meters.add(Gauge.builder("multicache.l1.size", cache, MultiCache::estimatedLocalSize)
+                .tags(tags)
+                .description("一级缓存估算条数")
+                .register(registry));
+
+        meters.add(FunctionCounter.builder("multicache.invalidations", invalidationPublisher, p -> p.sentCount(cacheName))
+                .tags(tags).tag("direction", "sent")
+                .description("发送的缓存失效消息条数")
+                .register(registry));
+        meters.add(FunctionCounter.builder("multicache.invalidations", stats, MultiCacheStats::invalidationReceivedCount)
+                .tags(tags).tag("direction", "received")
+                .description("收到其他节点的缓存失效消息条数")
+                .register(registry));
+        if (cache.isWriteBehind()) {
+            meters.add(Gauge.builder("multicache.writebehind.pending", cache, MultiCache::pendingWriteCount)
+                    .tags(tags)
+                    .description("尚未写入 redis 的key个数")
+                    .register(registry));
+            meters.add(FunctionTimer.builder("multicache.writebehind.lag", stats, MultiCacheStats::writeBehindFlushCount,
+                            MultiCacheStats::writeBehindLagNanos, TimeUnit.NANOSECONDS)
+                    .tags(tags)
+                    .description("延迟写入从首次入队到写入 redis 的耗时")
+                    .register(registry));
+            meters.add(FunctionCounter.builder("multicache.writebehind.fallbacks", stats, MultiCacheStats::writeBehindFallbackCount)
+                    .tags(tags)
+                    .description("待写队列已满改为同步写入的次数")
+                    .register(registry));
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,122 @@
+package com.peach.redis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/19 10:10
+ * @Description 单个缓存名称的统计数据，只做 LongAdder 累加，命中路径上不分配对象，
+ * 由 {@link MultiCacheMetrics} 在采集时读取
+ */
+public class MultiCacheStats {
+
+    private final LongAdder l1Hits = new LongAdder();
+
+    private final LongAdder l2Hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadSuccesses = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    private final LongAdder writeBehindFlushes = new LongAdder();
+
+    private final LongAdder writeBehindLagNanos = new LongAdder();
+
+    private final LongAdder writeBehindFallbacks = new LongAdder();
+
+    public void recordL1Hits(int count) {
+        l1Hits.add(count);
+    }
+
+    public void recordL2Hits(int count) {
+        l2Hits.add(count);
+    }
+
+    public void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    public void recordLoadSuccess(long loadNanos) {
+        loadSuccesses.increment();
+        totalLoadNanos.add(loadNanos);
+    }
+
+    public void recordLoadFailure(long loadNanos) {
+        loadFailures.increment();
+        totalLoadNanos.add(loadNanos);
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public void recordInvalidationReceived() {
+        invalidationsReceived.increment();
+    }
+
+    /**
+     * 记录一个待写key写入 redis
+     * @param lagNanos 从首次入队到写入 redis 的耗时
+     */
+    public void recordWriteBehindFlush(long lagNanos) {
+        writeBehindFlushes.increment();
+        writeBehindLagNanos.add(lagNanos);
+    }
+
+    public void recordWriteBehindFallback() {
+        writeBehindFallbacks.increment();
+    }
+
+    public long l1HitCount() {
+        return l1Hits.sum();
+    }
+
+    public long l2HitCount() {
+        return l2Hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long loadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long loadCount() {
+        return loadSuccesses.sum() + loadFailures.sum();
+    }
+
+    public long totalLoadNanos() {
+        return totalLoadNanos.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long invalidationReceivedCount() {
+        return invalidationsReceived.sum();
+    }
+
+    public long writeBehindFlushCount() {
+        return writeBehindFlushes.sum();
+    }
+
+    public long writeBehindLagNanos() {
+        return writeBehindLagNanos.sum();
+    }
+
+    public long writeBehindFallbackCount() {
+        return writeBehindFallbacks.sum();
+    }
+}
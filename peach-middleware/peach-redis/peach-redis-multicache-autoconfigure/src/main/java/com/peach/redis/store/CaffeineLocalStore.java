@@ -0,0 +1,126 @@
+package com.peach.redis.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/20 09:50
+ * @Description 缓存名称独占一个 caffeine 实例的一级缓存存储
+ * 需要按大小计算权重或限制单个对象大小时，写入前计算一次序列化大小并与值一起存放
+ */
+public class CaffeineLocalStore implements LocalStore {
+
+    private final Cache<Object, Object> cache;
+
+    /**
+     * 按序列化大小计算权重，为 null 时不计算
+     */
+    private final ValueWeigher weigher;
+
+    private final long maximumValueSize;
+
+    public CaffeineLocalStore(Cache<Object, Object> cache) {
+        this(cache, null, 0);
+    }
+
+    public CaffeineLocalStore(Cache<Object, Object> cache, ValueWeigher weigher, long maximumValueSize) {
+        this.cache = cache;
+        this.weigher = weigher;
+        this.maximumValueSize = maximumValueSize;
+    }
+
+    @Override
+    public Object getIfPresent(Object key) {
+        return SizedValue.unwrap(cache.getIfPresent(key));
+    }
+
+    @Override
+    public Map<Object, Object> getAllPresent(Iterable<?> keys) {
+        Map<Object, Object> present = cache.getAllPresent(keys);
+        if (weigher == null) {
+            return present;
+        }
+        Map<Object, Object> result = new LinkedHashMap<>(present.size());
+        present.forEach((key, value) -> result.put(key, SizedValue.unwrap(value)));
+        return result;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (weigher == null) {
+            cache.put(key, value);
+            return;
+        }
+        int size = weigher.weigh(value);
+        if (maximumValueSize > 0 && size > maximumValueSize) {
+            // 超过大小限制的对象只保存在 redis，同时移除可能存在的旧值
+            cache.invalidate(key);
+            return;
+        }
+        cache.put(key, new SizedValue(value, size));
+    }
+
+    @Override
+    public void putAll(Map<?, ?> values) {
+        if (weigher == null) {
+            cache.putAll(values);
+            return;
+        }
+        values.forEach(this::put);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll(Iterable<?> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Map<Object, Object> hottest(int limit) {
+        Map<Object, Object> entries = cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(() -> cache.policy().expireAfterAccess()
+                        .map(expiration -> expiration.youngest(limit))
+                        .orElse(null));
+        Map<Object, Object> result = new LinkedHashMap<>();
+        if (entries == null) {
+            for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.put(entry.getKey(), SizedValue.unwrap(entry.getValue()));
+            }
+            return result;
+        }
+        entries.forEach((key, value) -> result.put(key, SizedValue.unwrap(value)));
+        return result;
+    }
+
+    @Override
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache;
+    }
+}
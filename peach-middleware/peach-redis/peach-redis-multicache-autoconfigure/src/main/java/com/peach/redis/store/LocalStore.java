@@ -0,0 +1,61 @@
+package com.peach.redis.store;
+
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/20 09:40
+ * @Description 单个缓存名称的一级缓存存储
+ */
+public interface LocalStore {
+
+    /**
+     * 获取缓存值
+     * @param key 缓存key
+     * @return 不存在时返回 null
+     */
+    Object getIfPresent(Object key);
+
+    /**
+     * 批量获取缓存值
+     * @param keys 缓存key集合
+     * @return 只包含存在的 key
+     */
+    Map<Object, Object> getAllPresent(Iterable<?> keys);
+
+    void put(Object key, Object value);
+
+    void putAll(Map<?, ?> values);
+
+    void invalidate(Object key);
+
+    void invalidateAll(Iterable<?> keys);
+
+    void invalidateAll();
+
+    /**
+     * 按访问热度从高到低获取缓存，无法区分热度时返回任意的缓存
+     * @param limit 最大个数
+     * @return
+     */
+    Map<Object, Object> hottest(int limit);
+
+    /**
+     * 估算的缓存个数
+     * @return
+     */
+    long estimatedSize();
+
+    /**
+     * 因容量或过期被淘汰的个数
+     * @return
+     */
+    long evictionCount();
+
+    /**
+     * 底层的 caffeine 实例
+     * @return
+     */
+    Object getNativeCache();
+}
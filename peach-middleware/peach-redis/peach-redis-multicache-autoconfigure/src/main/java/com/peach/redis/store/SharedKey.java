@@ -0,0 +1,54 @@
+package com.peach.redis.store;
+
+import java.util.Objects;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/20 10:00
+ * @Description 共享一级缓存中的 key，由缓存名称与业务 key 组成
+ */
+public final class SharedKey {
+
+    private final String cacheName;
+
+    private final Object key;
+
+    private final int hash;
+
+    public SharedKey(String cacheName, Object key) {
+        this.cacheName = cacheName;
+        this.key = key;
+        this.hash = 31 * cacheName.hashCode() + key.hashCode();
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SharedKey)) {
+            return false;
+        }
+        SharedKey that = (SharedKey) o;
+        return hash == that.hash && cacheName.equals(that.cacheName) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,244 @@
+package com.peach.redis.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.peach.redis.config.CaffeineCacheConfig;
+import com.peach.redis.config.SharedStoreConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/20 10:10
+ * @Description 所有缓存名称共用的一级缓存
+ * 总量由 caffeine 的 maximumWeight 限制，每个缓存名称占用的权重在写入与移除时累计，
+ * 超过单个缓存名称的上限后该名称的新 key 不再放入，避免个别缓存名称挤占全部空间
+ */
+public class SharedLocalStore {
+
+    private final Cache<SharedKey, Object> cache;
+
+    private final long maximumWeightPerCache;
+
+    /**
+     * 按序列化大小计算权重或限制单个对象大小时使用，为 null 时每个对象权重为 1
+     */
+    private final ValueWeigher weigher;
+
+    private final boolean weighBySize;
+
+    private final long maximumValueSize;
+
+    private final ConcurrentMap<String, Usage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * @param config caffeine 配置
+     * @param refreshLoader 提前刷新加载器，为空时不开启提前刷新
+     * @param weigher 序列化大小计算
+     */
+    public SharedLocalStore(CaffeineCacheConfig config, CacheLoader<Object, Object> refreshLoader, ValueWeigher weigher) {
+        SharedStoreConfig shared = config.getShared();
+        this.maximumWeightPerCache = shared.getMaximumWeightPerCache();
+        this.weighBySize = shared.isWeighBySize();
+        this.maximumValueSize = config.getMaximumValueSize();
+        this.weigher = weighBySize || maximumValueSize > 0 ? weigher : null;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumWeight(shared.getMaximumWeight())
+                .executor(Runnable::run);
+        if (config.getExpireAfterAccess() > 0) {
+            builder.expireAfterAccess(config.getExpireAfterAccess(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getExpireAfterWrite() > 0) {
+            builder.expireAfterWrite(config.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
+        }
+        // caffeine 每次写入（包括提前刷新的结果）都会调用一次 weigher，在此累计占用，移除（包括被替换）时扣减
+        Caffeine<SharedKey, Object> typed = builder
+                .<SharedKey, Object>weigher((key, value) -> {
+                    int weight = weigh(value);
+                    usage(key.getCacheName()).add(1, weight);
+                    return weight;
+                })
+                .removalListener(this::onRemoval);
+        if (refreshLoader != null) {
+            typed.refreshAfterWrite(config.getRefreshAfterWrite(), TimeUnit.MILLISECONDS);
+            this.cache = typed.build(refreshLoader);
+        } else {
+            this.cache = typed.build();
+        }
+    }
+
+    private int weigh(Object value) {
+        return weighBySize ? weigher.weigh(value) : 1;
+    }
+
+    private Usage usage(String cacheName) {
+        return usages.computeIfAbsent(cacheName, name -> new Usage());
+    }
+
+    private void onRemoval(SharedKey key, Object value, RemovalCause cause) {
+        if (key == null) {
+            return;
+        }
+        Usage usage = usages.get(key.getCacheName());
+        if (usage == null) {
+            return;
+        }
+        usage.add(-1, -weigh(value));
+        if (cause.wasEvicted()) {
+            usage.evictions.increment();
+        }
+    }
+
+    /**
+     * 获取缓存名称对应的一级缓存视图
+     * @param cacheName 缓存名称
+     * @return
+     */
+    public LocalStore view(String cacheName) {
+        return new View(cacheName);
+    }
+
+    /**
+     * 所有缓存名称的估算总数
+     * @return
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static final class Usage {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong weight = new AtomicLong();
+
+        private final LongAdder evictions = new LongAdder();
+
+        private void add(int count, int weight) {
+            this.count.addAndGet(count);
+            this.weight.addAndGet(weight);
+        }
+    }
+
+    private final class View implements LocalStore {
+
+        private final String cacheName;
+
+        private View(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        private SharedKey sharedKey(Object key) {
+            return new SharedKey(cacheName, key);
+        }
+
+        @Override
+        public Object getIfPresent(Object key) {
+            return SizedValue.unwrap(cache.getIfPresent(sharedKey(key)));
+        }
+
+        @Override
+        public Map<Object, Object> getAllPresent(Iterable<?> keys) {
+            List<SharedKey> sharedKeys = new ArrayList<>();
+            for (Object key : keys) {
+                sharedKeys.add(sharedKey(key));
+            }
+            Map<SharedKey, Object> present = cache.getAllPresent(sharedKeys);
+            Map<Object, Object> result = new LinkedHashMap<>(present.size());
+            present.forEach((key, value) -> result.put(key.getKey(), SizedValue.unwrap(value)));
+            return result;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            SharedKey sharedKey = sharedKey(key);
+            int size = weigher == null ? 1 : weigher.weigh(value);
+            if (maximumValueSize > 0 && size > maximumValueSize) {
+                // 超过大小限制的对象只保存在 redis，同时移除可能存在的旧值
+                cache.invalidate(sharedKey);
+                return;
+            }
+            Object storeValue = weigher == null ? value : new SizedValue(value, size);
+            if (maximumWeightPerCache > 0 && usage(cacheName).weight.get() >= maximumWeightPerCache) {
+                // 已达到单个缓存名称的上限，只更新已存在的 key，不再放入新 key
+                cache.asMap().computeIfPresent(sharedKey, (k, oldValue) -> storeValue);
+                return;
+            }
+            cache.put(sharedKey, storeValue);
+        }
+
+        @Override
+        public void putAll(Map<?, ?> values) {
+            values.forEach(this::put);
+        }
+
+        @Override
+        public void invalidate(Object key) {
+            cache.invalidate(sharedKey(key));
+        }
+
+        @Override
+        public void invalidateAll(Iterable<?> keys) {
+            for (Object key : keys) {
+                cache.invalidate(sharedKey(key));
+            }
+        }
+
+        /**
+         * 需遍历共享缓存中的所有 key，耗时与共享缓存大小成正比
+         */
+        @Override
+        public void invalidateAll() {
+            cache.asMap().keySet().removeIf(key -> key.getCacheName().equals(cacheName));
+            Usage usage = usages.get(cacheName);
+            if (usage != null && usage.count.get() <= 0) {
+                usages.remove(cacheName, usage);
+            }
+        }
+
+        /**
+         * 共享一级缓存中不区分单个缓存名称的热度，返回该缓存名称下任意的缓存
+         */
+        @Override
+        public Map<Object, Object> hottest(int limit) {
+            Map<Object, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<SharedKey, Object> entry : cache.asMap().entrySet()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (entry.getKey().getCacheName().equals(cacheName)) {
+                    result.put(entry.getKey().getKey(), SizedValue.unwrap(entry.getValue()));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public long estimatedSize() {
+            Usage usage = usages.get(cacheName);
+            return usage == null ? 0 : Math.max(0, usage.count.get());
+        }
+
+        @Override
+        public long evictionCount() {
+            Usage usage = usages.get(cacheName);
+            return usage == null ? 0 : usage.evictions.sum();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.peach.redis.store;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/21 10:00
+ * @Description 记录了序列化大小的一级缓存对象，避免 caffeine 计算权重时重复序列化
+ */
+final class SizedValue {
+
+    private final Object value;
+
+    private final int size;
+
+    SizedValue(Object value, int size) {
+        this.value = value;
+        this.size = size;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    static Object unwrap(Object value) {
+        return value instanceof SizedValue ? ((SizedValue) value).value : value;
+    }
+}
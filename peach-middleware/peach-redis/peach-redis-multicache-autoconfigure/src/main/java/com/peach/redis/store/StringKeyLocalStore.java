@@ -0,0 +1,94 @@
+package com.peach.redis.store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/22 09:50
+ * @Description 以 key 的字符串形式保存的一级缓存，与 redis key 中的写法一致，
+ * 用于只能从 redis key 中还原出字符串 key 的失效通知
+ */
+public class StringKeyLocalStore implements LocalStore {
+
+    private final LocalStore delegate;
+
+    public StringKeyLocalStore(LocalStore delegate) {
+        this.delegate = delegate;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @Override
+    public Object getIfPresent(Object key) {
+        return delegate.getIfPresent(localKey(key));
+    }
+
+    @Override
+    public Map<Object, Object> getAllPresent(Iterable<?> keys) {
+        Map<String, Object> keysByLocalKey = new LinkedHashMap<>();
+        for (Object key : keys) {
+            keysByLocalKey.put(localKey(key), key);
+        }
+        Map<Object, Object> present = delegate.getAllPresent(keysByLocalKey.keySet());
+        Map<Object, Object> result = new LinkedHashMap<>(present.size());
+        present.forEach((localKey, value) -> result.put(keysByLocalKey.get(localKey), value));
+        return result;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(localKey(key), value);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> values) {
+        Map<Object, Object> localValues = new LinkedHashMap<>(values.size());
+        values.forEach((key, value) -> localValues.put(localKey(key), value));
+        delegate.putAll(localValues);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        delegate.invalidate(localKey(key));
+    }
+
+    @Override
+    public void invalidateAll(Iterable<?> keys) {
+        List<String> localKeys = new ArrayList<>();
+        for (Object key : keys) {
+            localKeys.add(localKey(key));
+        }
+        delegate.invalidateAll(localKeys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+
+    @Override
+    public Map<Object, Object> hottest(int limit) {
+        return delegate.hottest(limit);
+    }
+
+    @Override
+    public long estimatedSize() {
+        return delegate.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return delegate.evictionCount();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+}
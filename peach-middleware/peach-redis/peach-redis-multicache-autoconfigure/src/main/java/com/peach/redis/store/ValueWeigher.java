@@ -0,0 +1,38 @@
+package com.peach.redis.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/21 09:50
+ * @Description 按 redis value 序列化后的字节数计算一级缓存对象的权重
+ */
+@Slf4j
+public class ValueWeigher {
+
+    private final RedisSerializer<Object> serializer;
+
+    public ValueWeigher(RedisSerializer<Object> serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * 计算权重
+     * @param value 存储值
+     * @return 序列化后的字节数，最小为 1，无法序列化时返回 1
+     */
+    public int weigh(Object value) {
+        if (value instanceof SizedValue) {
+            return ((SizedValue) value).getSize();
+        }
+        try {
+            byte[] bytes = serializer.serialize(value);
+            return bytes == null ? 1 : Math.max(1, bytes.length);
+        } catch (RuntimeException e) {
+            log.debug("weigh cache value failed, the value type is : {}", value.getClass().getName(), e);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.peach.redis.warmup;
+
+import com.peach.initialize.base.AbstractAppStartedEventHandler;
+import com.peach.redis.config.MultiCacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/27 10:40
+ * @Description 启动时预热缓存的抽象处理器，需引入 peach-initialize，子类注册为 bean 后在应用就绪前执行，
+ * 最多等待 peach.multicache.warm-up.await-timeout，超时后预热在后台继续执行
+ */
+@Slf4j
+public abstract class AbstractCacheWarmUpHandler extends AbstractAppStartedEventHandler {
+
+    /**
+     * 预热的缓存名称
+     * @return
+     */
+    protected abstract String cacheName();
+
+    /**
+     * 加载一页预热数据，返回 null 或空集合时结束
+     * @param page 页码，从 0 开始
+     * @param pageSize 每页个数
+     * @return 缓存key与缓存值
+     */
+    protected abstract Map<?, ?> load(int page, int pageSize);
+
+    @Override
+    public Integer executeOrder() {
+        return 10;
+    }
+
+    @Override
+    public void executeInitialize(ConfigurableApplicationContext context) {
+        CacheWarmer cacheWarmer = context.getBean(CacheWarmer.class);
+        Duration timeout = context.getBean(MultiCacheConfig.class).getWarmUp().getAwaitTimeout();
+        WarmUpProgress progress = cacheWarmer.warmUp(cacheName(), this::load);
+        try {
+            if (!progress.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("cache warm up not finished in {} ms, continue in background, {}", timeout.toMillis(), progress);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.cancel();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.peach.redis.warmup;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.peach.redis.config.WarmUpConfig;
+import com.peach.redis.manager.MultiCache;
+import com.peach.redis.manager.MultiCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/27 10:20
+ * @Description 缓存预热
+ * 读取任务与写入任务都在预热线程池中执行：按页读取数据源，拆分为批次后并行通过 pipeline 写入，
+ * 同一次预热最多同时提交 2 倍线程数的批次，超出时由读取任务直接写入，读取速度超过写入速度时读取随之变慢，
+ * 内存中只保留少量页的数据，读取任务占满线程池时也不会互相等待；
+ * 配置每秒写入上限后按 key 个数限流，上限由所有同时进行的预热共享
+ */
+@Slf4j
+public class CacheWarmer implements DisposableBean {
+
+    private final MultiCacheManager cacheManager;
+
+    private final WarmUpConfig config;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger index = new AtomicInteger();
+
+    /**
+     * 写入限流，未配置每秒写入上限时为 null
+     */
+    private final RateLimiter rateLimiter;
+
+    public CacheWarmer(MultiCacheManager cacheManager, WarmUpConfig config) {
+        this.cacheManager = cacheManager;
+        this.config = config;
+        this.rateLimiter = config.getOpsPerSecond() > 0 ? RateLimiter.create(config.getOpsPerSecond()) : null;
+        int parallelism = Math.max(1, config.getParallelism());
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "multicache-warmup-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 异步预热
+     * @param cacheName 缓存名称
+     * @param source 分页数据源，按配置的每页个数读取
+     * @return 预热进度
+     */
+    public WarmUpProgress warmUp(String cacheName, WarmUpSource source) {
+        return warmUp(cacheName, pages(source, Math.max(1, config.getPageSize())));
+    }
+
+    /**
+     * 异步预热
+     * @param cacheName 缓存名称
+     * @param pages 逐页返回预热数据的迭代器
+     * @return 预热进度
+     */
+    public WarmUpProgress warmUp(String cacheName, Iterator<? extends Map<?, ?>> pages) {
+        MultiCache cache = (MultiCache) cacheManager.getCache(cacheName);
+        WarmUpProgress progress = new WarmUpProgress(cacheName);
+        try {
+            executor.execute(() -> run(cache, pages, progress));
+        } catch (RejectedExecutionException e) {
+            progress.complete(e);
+        }
+        return progress;
+    }
+
+    private void run(MultiCache cache, Iterator<? extends Map<?, ?>> pages, WarmUpProgress progress) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        WarmUpTask task = new WarmUpTask(cache, progress, Math.max(1, config.getParallelism()) * 2);
+        Throwable error = null;
+        try {
+            while (!progress.isCancelled() && pages.hasNext()) {
+                Map<?, ?> page = pages.next();
+                progress.pageRead();
+                if (page == null || page.isEmpty()) {
+                    continue;
+                }
+                Map<Object, Object> batch = new LinkedHashMap<>(Math.min(batchSize, page.size()) * 2);
+                for (Map.Entry<?, ?> entry : page.entrySet()) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    if (batch.size() >= batchSize) {
+                        submit(task, batch);
+                        batch = new LinkedHashMap<>(batchSize * 2);
+                        if (progress.isCancelled()) {
+                            break;
+                        }
+                    }
+                }
+                if (!batch.isEmpty() && !progress.isCancelled()) {
+                    submit(task, batch);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("read warm up data failed, the cache name is : {}", cache.getName(), e);
+            error = e;
+        }
+        // 读取结束，已提交的批次全部写入后完成
+        task.finish(error);
+    }
+
+    private void submit(WarmUpTask task, Map<Object, Object> batch) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(batch.size());
+        }
+        if (!task.inFlight.tryAcquire()) {
+            // 已提交的批次达到上限，由读取任务直接写入
+            task.write(batch);
+            return;
+        }
+        task.running.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.write(batch);
+                } finally {
+                    task.inFlight.release();
+                    task.finish(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            task.inFlight.release();
+            task.progress.failed(batch.size());
+            task.finish(e);
+            throw e;
+        }
+    }
+
+    private static Iterator<Map<?, ?>> pages(WarmUpSource source, int pageSize) {
+        return new Iterator<Map<?, ?>>() {
+
+            private int page;
+
+            private Map<?, ?> next;
+
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !finished) {
+                    next = source.load(page++, pageSize);
+                    if (next == null || next.isEmpty()) {
+                        next = null;
+                        finished = true;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map<?, ?> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map<?, ?> current = next;
+                next = null;
+                // 不足一页说明已是最后一页，不再多查询一次
+                if (current.size() < pageSize) {
+                    finished = true;
+                }
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一次预热的写入状态，读取任务与已提交的批次全部结束后完成进度
+     */
+    private static final class WarmUpTask {
+
+        private final MultiCache cache;
+
+        private final WarmUpProgress progress;
+
+        private final Semaphore inFlight;
+
+        /**
+         * 读取任务与已提交未结束的批次个数，初始为读取任务的 1
+         */
+        private final AtomicInteger running = new AtomicInteger(1);
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private WarmUpTask(MultiCache cache, WarmUpProgress progress, int maxInFlight) {
+            this.cache = cache;
+            this.progress = progress;
+            this.inFlight = new Semaphore(maxInFlight);
+        }
+
+        private void write(Map<Object, Object> batch) {
+            try {
+                cache.putAll(batch);
+                progress.written(batch.size());
+            } catch (RuntimeException e) {
+                progress.failed(batch.size());
+                log.error("write warm up data failed, the cache name is : {}, batch size : {}", cache.getName(), batch.size(), e);
+            }
+        }
+
+        private void finish(Throwable cause) {
+            if (cause != null) {
+                error.compareAndSet(null, cause);
+            }
+            if (running.decrementAndGet() == 0) {
+                progress.complete(error.get());
+                log.info("cache warm up finished, {}", progress);
+            }
+        }
+    }
+}
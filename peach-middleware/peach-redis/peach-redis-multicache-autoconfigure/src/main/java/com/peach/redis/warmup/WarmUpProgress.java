@@ -0,0 +1,127 @@
+package com.peach.redis.warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/27 10:10
+ * @Description 缓存预热进度，可查询已写入个数、等待完成或取消
+ */
+public class WarmUpProgress {
+
+    private final String cacheName;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final AtomicLong pages = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private volatile boolean cancelled;
+
+    private volatile long endTime;
+
+    private volatile Throwable error;
+
+    WarmUpProgress(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * 已读取的页数
+     */
+    public long getPages() {
+        return pages.get();
+    }
+
+    /**
+     * 已写入的个数
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * 写入失败的个数
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 读取数据源时的异常，读取失败后不再继续预热
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已耗时，完成后为总耗时
+     * @return 毫秒
+     */
+    public long elapsedMillis() {
+        long end = endTime;
+        return (end == 0 ? System.currentTimeMillis() : end) - startTime;
+    }
+
+    /**
+     * 取消预热，已提交的批次仍会写入
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * 等待预热完成
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否已完成
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    void pageRead() {
+        pages.incrementAndGet();
+    }
+
+    void written(int count) {
+        written.addAndGet(count);
+    }
+
+    void failed(int count) {
+        failed.addAndGet(count);
+    }
+
+    void complete(Throwable error) {
+        this.error = error;
+        this.endTime = System.currentTimeMillis();
+        done.countDown();
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpProgress{cacheName=" + cacheName + ", pages=" + pages + ", written=" + written
+                + ", failed=" + failed + ", done=" + isDone() + ", cancelled=" + cancelled
+                + ", elapsed=" + elapsedMillis() + "ms}";
+    }
+}
@@ -0,0 +1,21 @@
+package com.peach.redis.warmup;
+
+import java.util.Map;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/27 10:05
+ * @Description 分页的预热数据源
+ */
+@FunctionalInterface
+public interface WarmUpSource {
+
+    /**
+     * 加载一页预热数据，返回 null 或空集合时结束
+     * @param page 页码，从 0 开始
+     * @param pageSize 每页个数
+     * @return 缓存key与缓存值
+     */
+    Map<?, ?> load(int page, int pageSize);
+}
@@ -0,0 +1,99 @@
+package com.peach.redis.key;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 11:30
+ * @Description redis key 构建基准测试，对比字符串拼接后经 StringRedisSerializer 编码与 {@link CacheKeyCodec} 直接编码，
+ * 每次查询的分配字节数见 gc.alloc.rate.norm。
+ * 运行：在项目根目录执行
+ * mvn -pl peach-middleware/peach-redis/peach-redis-multicache-autoconfigure -am test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test，
+ * 再在模块目录执行 java -cp "target/test-classes:target/classes:$(cat target/test.classpath)" com.peach.redis.key.CacheKeyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private static final String CACHE_PREFIX = "demo";
+
+    private static final String CACHE_NAME = "user";
+
+    @Param({"STRING", "LONG", "UUID"})
+    public String keyType;
+
+    private Object key;
+
+    private final RedisSerializer<String> stringSerializer = StringRedisSerializer.UTF_8;
+
+    private final CacheKeySerializer keySerializer = new CacheKeySerializer();
+
+    private final CacheKeyCodec codec = new CacheKeyCodec(CACHE_PREFIX + ":" + CACHE_NAME);
+
+    @Setup
+    public void setUp() {
+        switch (keyType) {
+            case "STRING":
+                key = "order-20260130-000123";
+                break;
+            case "LONG":
+                key = 1_234_567_890_123L;
+                break;
+            case "UUID":
+                key = UUID.fromString("3f2b8c1e-6a4d-4f0e-9b7a-2c5d8e1f4a6b");
+                break;
+            default:
+                throw new IllegalArgumentException("unknown key type : " + keyType);
+        }
+    }
+
+    /**
+     * 原有方式：拼接完整的key字符串后按 UTF-8 编码
+     */
+    @Benchmark
+    public byte[] concat() {
+        return stringSerializer.serialize(CACHE_PREFIX + ":" + CACHE_NAME + ":" + key);
+    }
+
+    /**
+     * 构建 CacheKey 后由 CacheKeySerializer 直接编码
+     */
+    @Benchmark
+    public byte[] codec() {
+        return keySerializer.serialize(codec.key(key, -1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CacheKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.peach.redis.key;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/30 11:00
+ * @Description key编码与 String.valueOf(key) 的 UTF-8 编码一致性测试，保证切换后 redis 中已有的key仍可访问
+ */
+class CacheKeyEncodersTest {
+
+    private static final List<Long> LONGS = Arrays.asList(0L, 1L, -1L, 9L, -9L, 10L, -10L, 99L, -100L,
+            Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L,
+            999_999_999_999_999_999L, -999_999_999_999_999_999L,
+            1_000_000_000_000_000_000L, -1_000_000_000_000_000_000L,
+            Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE, Long.MIN_VALUE + 1);
+
+    private static final List<Integer> INTEGERS = Arrays.asList(0, 7, -7, 10, -10, 123_456, -123_456,
+            1_000_000_000, -1_000_000_000, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    private static final List<String> STRINGS = Arrays.asList("", "a", "user:1", "key with space",
+            "中文key", "emoji😀", "tab\tline\n", "\u007f");
+
+    @Test
+    void longKeysMatchStringValueOf() {
+        LONGS.forEach(CacheKeyEncodersTest::assertSameBytes);
+    }
+
+    @Test
+    void integerKeysMatchStringValueOf() {
+        INTEGERS.forEach(CacheKeyEncodersTest::assertSameBytes);
+    }
+
+    @Test
+    void uuidKeysMatchStringValueOf() {
+        assertSameBytes(new UUID(0L, 0L));
+        assertSameBytes(new UUID(-1L, -1L));
+        assertSameBytes(new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+        for (int i = 0; i < 100; i++) {
+            assertSameBytes(UUID.randomUUID());
+        }
+    }
+
+    @Test
+    void stringKeysMatchStringValueOf() {
+        STRINGS.forEach(CacheKeyEncodersTest::assertSameBytes);
+    }
+
+    @Test
+    void codecMatchesConcatenatedKey() {
+        CacheKeyCodec codec = new CacheKeyCodec("demo:user");
+        CacheKeySerializer serializer = new CacheKeySerializer();
+        StringRedisSerializer stringSerializer = StringRedisSerializer.UTF_8;
+        for (Object key : keys()) {
+            assertArrayEquals(stringSerializer.serialize("demo:user:" + key),
+                    serializer.serialize(codec.key(key, -1)), String.valueOf(key));
+            assertArrayEquals(stringSerializer.serialize("demo:user:v3:" + key),
+                    serializer.serialize(codec.key(key, 3)), String.valueOf(key));
+        }
+    }
+
+    private static List<Object> keys() {
+        List<Object> keys = new ArrayList<>();
+        keys.addAll(LONGS);
+        keys.addAll(INTEGERS);
+        keys.addAll(STRINGS);
+        keys.add(UUID.randomUUID());
+        return keys;
+    }
+
+    private static void assertSameBytes(Object key) {
+        byte[] expected = String.valueOf(key).getBytes(StandardCharsets.UTF_8);
+        int length = CacheKeyEncoders.length(key);
+        byte[] actual;
+        if (length < 0) {
+            actual = CacheKeyEncoders.fallback(key);
+        } else {
+            byte[] target = new byte[length + 2];
+            // 从非零位置写入，前后各留一个字节校验写入范围正好为 length
+            CacheKeyEncoders.write(key, target, 1);
+            assertEquals(0, target[0], String.valueOf(key));
+            assertEquals(0, target[length + 1], String.valueOf(key));
+            actual = Arrays.copyOfRange(target, 1, length + 1);
+        }
+        assertArrayEquals(expected, actual, String.valueOf(key));
+    }
+}
@@ -0,0 +1,29 @@
+package com.peach.redis.listener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/22 11:20
+ * @Description 广播模式 tracking 前缀合并测试
+ */
+class TrackingInvalidationListenerTest {
+
+    @Test
+    void longerPrefixRegisteredFirstIsReplacedByShorter() {
+        assertEquals(Collections.singletonList("order:"),
+                TrackingInvalidationListener.minimalPrefixes(Arrays.asList("order:item:", "order:")));
+    }
+
+    @Test
+    void unrelatedPrefixesAreKept() {
+        assertEquals(Arrays.asList("user:", "order:", "orders:"),
+                TrackingInvalidationListener.minimalPrefixes(Arrays.asList("user:", "order:", "orders:", "order:item:")));
+    }
+}
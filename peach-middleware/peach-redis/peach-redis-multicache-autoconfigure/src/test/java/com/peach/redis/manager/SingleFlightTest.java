@@ -0,0 +1,143 @@
+package com.peach.redis.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/01/08 14:30
+ * @Description 单飞加载并发测试
+ */
+class SingleFlightTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void concurrentMissesOnSameKeyLoadOnce() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object loaded = new Object();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return loaded;
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < THREADS; i++) {
+                futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    loads.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            // 等待线程登记到进行中的加载上
+            waitForActive((ThreadPoolExecutor) executor, THREADS);
+            assertEquals(1, singleFlight.inFlightSize());
+            release.countDown();
+            for (Future<Object> future : futures) {
+                assertSame(loaded, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, singleFlight.inFlightSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retainedLoadsDoNotGrowWithDistinctKeys() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        int keysPerThread = 10_000;
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < keysPerThread; i++) {
+                        // 相邻线程的key部分重叠，同时覆盖并发等待与独占加载
+                        String key = "key-" + ((thread / 2) * keysPerThread + i);
+                        singleFlight.execute(key, () -> {
+                            maxInFlight.accumulateAndGet(singleFlight.inFlightSize(), Math::max);
+                            return key;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, singleFlight.inFlightSize());
+        assertTrue(maxInFlight.get() <= THREADS, "in flight loads exceed concurrent threads : " + maxInFlight.get());
+    }
+
+    @Test
+    void failedLoadIsReleased() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        IllegalStateException error = new IllegalStateException("load failed");
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("key", () -> {
+                    throw error;
+                }));
+        assertSame(error, thrown);
+        assertEquals(0, singleFlight.inFlightSize());
+        assertEquals("value", singleFlight.execute("key", () -> "value"));
+        assertEquals(0, singleFlight.inFlightSize());
+    }
+
+    @Test
+    void recursiveLoadOnSameThreadFails() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> future = executor.submit(() -> singleFlight.execute("key",
+                    () -> singleFlight.execute("key", () -> "inner")));
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertTrue(thrown.getCause() instanceof IllegalStateException);
+            assertEquals("recursive load", thrown.getCause().getMessage());
+            assertEquals(0, singleFlight.inFlightSize());
+            // 其他key的嵌套加载不受影响
+            assertEquals("inner", singleFlight.execute("outer", () -> singleFlight.execute("key", () -> "inner")));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitForActive(ThreadPoolExecutor executor, int active) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() < active && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // 线程开始执行后仍可能尚未调用 future.get，稍作等待
+        Thread.sleep(50);
+    }
+}
@@ -14,7 +14,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.stream.Consumer;
 import org.springframework.data.redis.connection.stream.ObjectRecord;
 import org.springframework.data.redis.connection.stream.ReadOffset;
@@ -57,7 +57,7 @@ public class RedisStreamAutoConfig {
     @ConditionalOnBean(MessageConsumer.class)
     @ConditionalOnMissingBean(StreamMessageListenerContainer.class)
     public StreamMessageListenerContainer<String, ObjectRecord<String, String>> streamMessageListenerContainer(
-            JedisConnectionFactory jedisConnectionFactory,
+            RedisConnectionFactory redisConnectionFactory,
             RedisStreamProperties redisStreamProperties,
             RedisStreamHandler redisStreamHandler,
             MessageConsumer messageConsumer) {
@@ -70,7 +70,7 @@ public class RedisStreamAutoConfig {
                 .executor(createThreadPool())
                 .build();
 
-        StreamMessageListenerContainer<String, ObjectRecord<String, String>> container = StreamMessageListenerContainer.create(jedisConnectionFactory, options);
+        StreamMessageListenerContainer<String, ObjectRecord<String, String>> container = StreamMessageListenerContainer.create(redisConnectionFactory, options);
         checkConsumerType(redisStreamProperties.getConsumerType());
         RedisStreamLinstener redisStreamListener = new RedisStreamLinstener(messageConsumer);
         if (RedisStreamContant.GROUP.equals(redisStreamProperties.getConsumerType())) {
@@ -0,0 +1,198 @@
+package com.peach.redis.common.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/09 10:30
+ * @Description key 扫描游标
+ * 扫描线程将 SCAN 返回的key放入有界的预取队列，调用方逐个读取，队列满时扫描线程暂停，不会在内存中累积全部key。
+ * 达到key个数上限、超时或调用 {@link #close()} 后停止扫描；使用完毕必须关闭，{@link #stream()} 返回的流关闭时会关闭游标。
+ * SCAN 不保证key不重复，同一个key可能被返回多次
+ */
+@Slf4j
+public class KeyScanCursor implements CloseableIterator<String> {
+
+    /**
+     * 等待队列时检查关闭与超时的间隔
+     */
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String pattern;
+
+    private final BlockingQueue<String> queue;
+
+    private final AtomicInteger running;
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private final long maxKeys;
+
+    private final long deadlineNanos;
+
+    private final long idleTimeoutNanos;
+
+    private volatile boolean closed;
+
+    private volatile boolean timedOut;
+
+    private volatile long lastActiveNanos = System.nanoTime();
+
+    private long returned;
+
+    private String next;
+
+    KeyScanCursor(String pattern, int prefetch, int tasks, long maxKeys, long timeoutNanos, long idleTimeoutNanos) {
+        this.pattern = pattern;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, prefetch));
+        this.running = new AtomicInteger(tasks);
+        this.maxKeys = maxKeys;
+        this.deadlineNanos = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        if (maxKeys > 0 && returned >= maxKeys) {
+            close();
+            return false;
+        }
+        lastActiveNanos = System.nanoTime();
+        while (true) {
+            Throwable cause = error.get();
+            if (cause != null) {
+                close();
+                throw new RedisSystemException("redis scan failed, the pattern is : " + pattern, cause);
+            }
+            long waitNanos = POLL_NANOS;
+            if (deadlineNanos != 0) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    timedOut = true;
+                    log.warn("redis scan timeout, the pattern is : {}, returned keys : {}", pattern, returned);
+                    close();
+                    return false;
+                }
+                waitNanos = Math.min(waitNanos, remaining);
+            }
+            // 先读取扫描任务是否全部结束，再读取队列，结束后队列为空即表示没有更多的key
+            boolean done = running.get() == 0;
+            String key;
+            try {
+                key = done ? queue.poll() : queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            }
+            lastActiveNanos = System.nanoTime();
+            if (key != null) {
+                next = key;
+                return true;
+            }
+            if (done || closed) {
+                close();
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String key = next;
+        next = null;
+        returned++;
+        return key;
+    }
+
+    /**
+     * 停止扫描并丢弃已预取的key，可在其他线程调用
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     * 扫描是否仍需继续，扫描线程在每个key之间检查
+     */
+    boolean isActive() {
+        return !closed && (deadlineNanos == 0 || System.nanoTime() < deadlineNanos);
+    }
+
+    /**
+     * 扫描线程放入一个key，队列满时等待调用方读取
+     * @param key 缓存key
+     * @return false 表示游标已关闭或超时，扫描线程应停止
+     */
+    boolean offer(String key) {
+        try {
+            while (isActive()) {
+                if (queue.offer(key, POLL_NANOS, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+                if (idleTimeoutNanos > 0 && System.nanoTime() - lastActiveNanos > idleTimeoutNanos) {
+                    log.warn("redis scan cursor is not read or closed, stop scanning, the pattern is : {}", pattern);
+                    close();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+        return false;
+    }
+
+    /**
+     * 单个扫描任务结束
+     * @param cause 扫描异常，正常结束时为 null
+     */
+    void finished(Throwable cause) {
+        if (cause != null && !closed) {
+            error.compareAndSet(null, cause);
+        }
+        running.decrementAndGet();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 已返回给调用方的key个数
+     */
+    public long getReturned() {
+        return returned;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 是否因超时而结束，超时后已返回的key不完整
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
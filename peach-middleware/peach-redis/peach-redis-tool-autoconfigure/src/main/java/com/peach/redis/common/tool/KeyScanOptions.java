@@ -0,0 +1,86 @@
+package com.peach.redis.common.tool;
+
+import java.time.Duration;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/09 10:10
+ * @Description 单次 key 扫描的参数，未设置的项使用 {@link RedisScanProperties} 中的配置
+ */
+public class KeyScanOptions {
+
+    private final String pattern;
+
+    private Integer count;
+
+    private Long maxKeys;
+
+    private Duration timeout;
+
+    private Integer prefetch;
+
+    private KeyScanOptions(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @param pattern 匹配模式(key值可为模糊匹配---taskInfo:taskDetail:* <---> *代表任意字符)
+     * @return
+     */
+    public static KeyScanOptions match(String pattern) {
+        return new KeyScanOptions(pattern);
+    }
+
+    /**
+     * 每次 SCAN 命令的 COUNT 参数
+     */
+    public KeyScanOptions count(Integer count) {
+        this.count = count;
+        return this;
+    }
+
+    /**
+     * 最多返回的key个数，为 0 时不限制
+     */
+    public KeyScanOptions limit(long maxKeys) {
+        this.maxKeys = maxKeys;
+        return this;
+    }
+
+    /**
+     * 最长耗时，为 0 时不限制
+     */
+    public KeyScanOptions timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * 预取队列容量
+     */
+    public KeyScanOptions prefetch(int prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    int countOr(int defaultValue) {
+        return count == null || count <= 0 ? defaultValue : count;
+    }
+
+    long maxKeysOr(long defaultValue) {
+        return maxKeys == null ? defaultValue : maxKeys;
+    }
+
+    Duration timeoutOr(Duration defaultValue) {
+        return timeout == null ? defaultValue : timeout;
+    }
+
+    int prefetchOr(int defaultValue) {
+        return prefetch == null || prefetch <= 0 ? defaultValue : prefetch;
+    }
+}
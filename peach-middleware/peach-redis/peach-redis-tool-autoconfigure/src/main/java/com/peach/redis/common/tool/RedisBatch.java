@@ -0,0 +1,208 @@
+package com.peach.redis.common.tool;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/12 10:10
+ * @Description 批量操作，方法与 {@link RedisDao} 中的同名方法一致，调用时只记录命令，
+ * 由 {@link RedisDao#pipeline} 在一次 pipeline 中发送，执行后通过返回的 {@link RedisBatchResult} 读取结果。
+ * 集群模式下按 slot 分组发送，不同 slot 之间不保证执行顺序，同一个key的命令按记录顺序执行
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class RedisBatch {
+
+    private final RedisSerializer keySerializer;
+
+    private final RedisSerializer valueSerializer;
+
+    private final RedisSerializer hashKeySerializer;
+
+    private final RedisSerializer hashValueSerializer;
+
+    private final List<Command> commands = new ArrayList<>();
+
+    RedisBatch(RedisSerializer keySerializer, RedisSerializer valueSerializer,
+               RedisSerializer hashKeySerializer, RedisSerializer hashValueSerializer) {
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.hashKeySerializer = hashKeySerializer;
+        this.hashValueSerializer = hashValueSerializer;
+    }
+
+    public RedisBatchResult<Boolean> vSet(Object key, Object value) {
+        byte[] rawValue = value(value);
+        return add(key, (connection, rawKey) -> connection.stringCommands().set(rawKey, rawValue), RedisBatch::toBoolean);
+    }
+
+    /**
+     * @param expireTime 过期时间，单位秒，通过 SET EX 一条命令写入
+     */
+    public RedisBatchResult<Boolean> vSet(Object key, Object value, Long expireTime) {
+        return vSet(key, value, Duration.ofSeconds(expireTime));
+    }
+
+    public RedisBatchResult<Boolean> vSet(Object key, Object value, Duration expire) {
+        byte[] rawValue = value(value);
+        Expiration expiration = Expiration.from(expire);
+        return add(key, (connection, rawKey) -> connection.stringCommands().set(rawKey, rawValue, expiration,
+                RedisStringCommands.SetOption.upsert()), RedisBatch::toBoolean);
+    }
+
+    public RedisBatchResult<Object> vGet(Object key) {
+        return add(key, (connection, rawKey) -> connection.stringCommands().get(rawKey),
+                raw -> valueSerializer.deserialize((byte[]) raw));
+    }
+
+    public RedisBatchResult<Boolean> hmSet(Object key, Object hashKey, Object value) {
+        byte[] field = hashKeySerializer.serialize(hashKey);
+        byte[] rawValue = hashValueSerializer.serialize(value);
+        return add(key, (connection, rawKey) -> connection.hashCommands().hSet(rawKey, field, rawValue), RedisBatch::toBoolean);
+    }
+
+    public RedisBatchResult<Object> hmGet(Object key, Object hashKey) {
+        byte[] field = hashKeySerializer.serialize(hashKey);
+        return add(key, (connection, rawKey) -> connection.hashCommands().hGet(rawKey, field),
+                raw -> hashValueSerializer.deserialize((byte[]) raw));
+    }
+
+    public RedisBatchResult<Long> hmSetIncrement(Object key, Object hashKey, Long value) {
+        byte[] field = hashKeySerializer.serialize(hashKey);
+        return add(key, (connection, rawKey) -> connection.hashCommands().hIncrBy(rawKey, field, value), RedisBatch::toLong);
+    }
+
+    public RedisBatchResult<Long> lLeftPush(Object k, Object v) {
+        byte[] rawValue = value(v);
+        return add(k, (connection, rawKey) -> connection.listCommands().lPush(rawKey, rawValue), RedisBatch::toLong);
+    }
+
+    public RedisBatchResult<Long> lRightPush(Object k, Object v) {
+        byte[] rawValue = value(v);
+        return add(k, (connection, rawKey) -> connection.listCommands().rPush(rawKey, rawValue), RedisBatch::toLong);
+    }
+
+    public RedisBatchResult<Long> lRightPushAll(Object k, List<Object> lst) {
+        byte[][] rawValues = values(lst);
+        return add(k, (connection, rawKey) -> connection.listCommands().rPush(rawKey, rawValues), RedisBatch::toLong);
+    }
+
+    public RedisBatchResult<Long> sAdd(Object key, Object... values) {
+        byte[][] rawValues = values(values == null ? Collections.emptyList() : Arrays.asList(values));
+        return add(key, (connection, rawKey) -> connection.setCommands().sAdd(rawKey, rawValues), RedisBatch::toLong);
+    }
+
+    public RedisBatchResult<Boolean> zAdd(Object key, Object value, double scoure) {
+        byte[] rawValue = value(value);
+        return add(key, (connection, rawKey) -> connection.zSetCommands().zAdd(rawKey, scoure, rawValue), RedisBatch::toBoolean);
+    }
+
+    /**
+     * @param timeout 过期时间，单位秒
+     */
+    public RedisBatchResult<Boolean> expire(Object k, long timeout) {
+        return add(k, (connection, rawKey) -> connection.keyCommands().expire(rawKey, timeout), RedisBatch::toBoolean);
+    }
+
+    public RedisBatchResult<Boolean> delete(Object key) {
+        return add(key, (connection, rawKey) -> connection.keyCommands().del(rawKey), raw -> toLong(raw) > 0);
+    }
+
+    /**
+     * 删除同一 slot 上的多个key
+     * @param rawKeys 序列化后的key，集群模式下必须位于同一 slot
+     */
+    RedisBatchResult<Long> unlink(List<byte[]> rawKeys) {
+        byte[][] keys = rawKeys.toArray(new byte[0][]);
+        RedisBatchResult<Long> result = new RedisBatchResult<>(RedisBatch::toLong);
+        commands.add(new Command(keys[0], (connection, rawKey) -> connection.keyCommands().unlink(keys), (RedisBatchResult) result));
+        return result;
+    }
+
+    /**
+     * 序列化key，已是 byte[] 的key直接使用
+     */
+    byte[] rawKey(Object key) {
+        return key instanceof byte[] ? (byte[]) key : keySerializer.serialize(key);
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    List<Command> commands() {
+        return commands;
+    }
+
+    private <T> RedisBatchResult<T> add(Object key, BiFunction<RedisConnection, byte[], Object> command, Function<Object, T> converter) {
+        RedisBatchResult<T> result = new RedisBatchResult<>(converter);
+        commands.add(new Command(rawKey(key), command, (RedisBatchResult<Object>) result));
+        return result;
+    }
+
+    private byte[] value(Object value) {
+        return valueSerializer.serialize(value);
+    }
+
+    private byte[][] values(List<?> values) {
+        byte[][] rawValues = new byte[values.size()][];
+        for (int i = 0; i < rawValues.length; i++) {
+            rawValues[i] = value(values.get(i));
+        }
+        return rawValues;
+    }
+
+    private static Boolean toBoolean(Object raw) {
+        if (raw instanceof Boolean) {
+            return (Boolean) raw;
+        }
+        if (raw instanceof Number) {
+            return ((Number) raw).longValue() > 0;
+        }
+        return raw != null;
+    }
+
+    private static Long toLong(Object raw) {
+        return raw instanceof Number ? ((Number) raw).longValue() : 0L;
+    }
+
+    /**
+     * 记录的单条命令
+     */
+    static final class Command {
+
+        final byte[] key;
+
+        /**
+         * 参数为连接与序列化后的key，pipeline 模式下返回 null，结果由关闭 pipeline 时返回
+         */
+        final BiFunction<RedisConnection, byte[], Object> command;
+
+        final RedisBatchResult<Object> result;
+
+        Command(byte[] key, BiFunction<RedisConnection, byte[], Object> command, RedisBatchResult<Object> result) {
+            this.key = key;
+            this.command = command;
+            this.result = result;
+        }
+
+        Object execute(RedisConnection connection) {
+            return command.apply(connection, key);
+        }
+    }
+}
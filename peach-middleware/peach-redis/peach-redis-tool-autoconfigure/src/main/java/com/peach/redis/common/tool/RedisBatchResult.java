@@ -0,0 +1,81 @@
+package com.peach.redis.common.tool;
+
+import org.springframework.data.redis.RedisSystemException;
+
+import java.util.function.Function;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/12 10:00
+ * @Description 批量操作中单条命令的结果，pipeline 执行完成后可读取
+ */
+public class RedisBatchResult<T> {
+
+    private final Function<Object, T> converter;
+
+    private volatile boolean done;
+
+    private T value;
+
+    private Throwable error;
+
+    RedisBatchResult(Function<Object, T> converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * 命令结果
+     * @return
+     * @throws IllegalStateException pipeline 尚未执行
+     * @throws RuntimeException 命令执行失败
+     */
+    public T get() {
+        if (!done) {
+            throw new IllegalStateException("redis pipeline has not been executed");
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error != null) {
+            throw new RedisSystemException("redis pipeline command failed", error);
+        }
+        return value;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isSuccess() {
+        return done && error == null;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 结果值，失败时为 null，不抛出异常
+     */
+    Object rawValue() {
+        return value;
+    }
+
+    void complete(Object raw) {
+        try {
+            this.value = raw == null ? null : converter.apply(raw);
+            this.error = null;
+        } catch (RuntimeException e) {
+            this.value = null;
+            this.error = e;
+        }
+        this.done = true;
+    }
+
+    void fail(Throwable error) {
+        this.value = null;
+        this.error = error;
+        this.done = true;
+    }
+}
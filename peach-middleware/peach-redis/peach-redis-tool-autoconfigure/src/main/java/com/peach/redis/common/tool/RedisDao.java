@@ -4,10 +4,16 @@ package com.peach.redis.common.tool;
 
 
 
+import org.springframework.data.redis.connection.RedisClusterNode;
+
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @Author Mr Shu
@@ -55,6 +61,7 @@ public interface RedisDao {
 
     /**
      * 批量删除key(key值可为模糊匹配---taskInfo:taskDetail:* <---> *代表任意字符)
+     * 删除全部匹配的key，不受 peach.redis.scan.timeout 与 max-keys 限制
      *
      * @param pattern
      */
@@ -67,6 +74,14 @@ public interface RedisDao {
      */
     public long delete(Set keys);
 
+    /**
+     * 通过 UNLINK 批量删除，由 redis 在后台线程释放内存；集群模式下按 slot 分组，各主节点并行发送
+     *
+     * @param keys 缓存key
+     * @return long 实际删除的key个数
+     */
+    public long unlink(Collection<?> keys);
+
     /**
      * 写入缓存(操作字符串)
      *
@@ -195,7 +210,7 @@ public interface RedisDao {
     public void lLeftPush(Object k, Object v);
 
     /**
-     * 从左向右添加列表(操作list);如果bool=true,会删除列表中已经存在的数据,然后再进行添加(仅针对字符串列表,其它待测)
+     * 从左向右添加列表(操作list);如果bool=true,会删除列表中已经存在的数据,然后再进行添加,删除与添加在一个 lua 脚本中原子执行
      *
      * @param k
      * @param v
@@ -220,7 +235,7 @@ public interface RedisDao {
     public void lRightPush(Object k, Object v);
 
     /**
-     * 从右向左添加列表(操作list);如果bool=true,会删除列表中已经存在的数据,然后再进行添加(仅针对字符串列表,其它待测)
+     * 从右向左添加列表(操作list);如果bool=true,会删除列表中已经存在的数据,然后再进行添加,删除与添加在一个 lua 脚本中原子执行
      *
      * @param k
      * @param v
@@ -386,14 +401,65 @@ public interface RedisDao {
     public void convertAndSend(String topic, Object message);
 
     /**
-     * 支持单机和集群
+     * 支持单机和集群，返回全部匹配的key，不受 peach.redis.scan.timeout 与 max-keys 限制，
+     * 匹配的key较多时使用 {@link #scanCursor(KeyScanOptions)}
      *
      * @param matchKey 匹配字段
-     * @param count    获取条数
+     * @param count    每次 SCAN 的 COUNT 参数，为空时使用 peach.redis.scan.count
      * @return
      */
     public Set<Object> scan(String matchKey, Integer count);
 
+    /**
+     * 逐批扫描匹配的key，支持单机和集群，集群模式下并行扫描所有主节点；
+     * key 在后台预取，调用方读取时才继续扫描，使用完毕必须关闭
+     *
+     * @param options 扫描参数，可设置 COUNT、key个数上限与超时
+     * @return KeyScanCursor
+     */
+    public KeyScanCursor scanCursor(KeyScanOptions options);
+
+    /**
+     * 以流的方式扫描匹配的key，需在 try-with-resources 中使用以便关闭扫描
+     *
+     * @param options 扫描参数
+     * @return Stream<String>
+     */
+    public Stream<String> scanStream(KeyScanOptions options);
+
+    /**
+     * 在一次 pipeline 中执行批量操作，集群模式下自动按 slot 分组
+     *
+     * @param ops 记录批量操作，方法与本接口中的同名方法一致，返回值可在执行后读取
+     * @return List<Object> 按记录顺序的命令结果
+     */
+    public List<Object> pipeline(Consumer<RedisBatch> ops);
+
+    /**
+     * 异步执行批量操作，ops 在当前线程记录，命令在异步线程发送
+     *
+     * @param ops 记录批量操作
+     * @return CompletableFuture<List<Object>>
+     */
+    public CompletableFuture<List<Object>> pipelineAsync(Consumer<RedisBatch> ops);
+
+    /**
+     * 通过 EVALSHA 执行 {@link RedisScriptRegistry} 中注册的 lua 脚本，redis 未缓存脚本时自动改用 EVAL
+     *
+     * @param name 脚本名称
+     * @param keys 脚本访问的key，集群模式下必须位于同一 slot
+     * @param args 脚本参数
+     * @return T 脚本返回值
+     */
+    public <T> T executeScript(String name, List<?> keys, Object... args);
+
+    /**
+     * 集群模式下的主节点列表，非集群模式返回空列表
+     *
+     * @return List<RedisClusterNode>
+     */
+    public List<RedisClusterNode> clusterMasterNodes();
+
     /**
      * 只支持单机redis
      *
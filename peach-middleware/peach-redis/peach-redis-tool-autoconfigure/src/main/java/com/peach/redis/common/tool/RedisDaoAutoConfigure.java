@@ -1,10 +1,12 @@
 package com.peach.redis.common.tool;
 
 import com.peach.redis.common.RedisConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.redis.core.RedisTemplate;
 
@@ -15,8 +17,32 @@ import org.springframework.data.redis.core.RedisTemplate;
  */
 @AutoConfiguration
 @AutoConfigureAfter(RedisConfig.class)
+@EnableConfigurationProperties({RedisScanProperties.class, RedisPipelineProperties.class})
 public class RedisDaoAutoConfigure {
 
+    @Bean(name = "redisKeyScanner")
+    @ConditionalOnBean(RedisTemplate.class)
+    @ConditionalOnMissingBean(RedisKeyScanner.class)
+    public RedisKeyScanner redisKeyScanner(@Qualifier("redisTemplate") RedisTemplate<?, ?> redisTemplate,
+                                           RedisScanProperties scanProperties) {
+        return new RedisKeyScanner(redisTemplate, scanProperties);
+    }
+
+    @Bean(name = "redisPipelineExecutor")
+    @ConditionalOnBean(RedisTemplate.class)
+    @ConditionalOnMissingBean(RedisPipelineExecutor.class)
+    public RedisPipelineExecutor redisPipelineExecutor(@Qualifier("redisTemplate") RedisTemplate<?, ?> redisTemplate,
+                                                       RedisPipelineProperties pipelineProperties) {
+        return new RedisPipelineExecutor(redisTemplate, pipelineProperties);
+    }
+
+    @Bean(name = "redisScriptRegistry")
+    @ConditionalOnBean(RedisTemplate.class)
+    @ConditionalOnMissingBean(RedisScriptRegistry.class)
+    public RedisScriptRegistry redisScriptRegistry(@Qualifier("redisTemplate") RedisTemplate<?, ?> redisTemplate) {
+        return new RedisScriptRegistry(redisTemplate);
+    }
+
     @Bean
     @ConditionalOnBean(RedisTemplate.class)
     @ConditionalOnMissingBean(RedisDao.class)
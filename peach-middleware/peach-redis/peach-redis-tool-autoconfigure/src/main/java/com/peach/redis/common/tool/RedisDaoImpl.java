@@ -2,11 +2,10 @@
 
 package com.peach.redis.common.tool;
 
-import cn.hutool.core.date.DateUnit;
-import cn.hutool.core.date.DateUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisClusterNode;
 import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.ListOperations;
@@ -15,19 +14,23 @@ import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.ScanParams;
-import redis.clients.jedis.ScanResult;
+
+import javax.annotation.Resource;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @Author Mr Shu
@@ -43,59 +46,20 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
 
     @Value("${peach.redis.mode}")
     private String redisMode;
-    private static final int USE_SCAN_COMMAND = 1;
-
-    private static List<String> getScanResult(Jedis redisService, String key, Integer count) {
-        Date startTime = new Date();
-        //扫描的参数对象创建与封装
-        ScanParams params = new ScanParams();
-        params.match(key);
-        //扫描返回一百行，这里可以根据业务需求进行修改
-        params.count(count);
-        String cursor = "0";
-        ScanResult<String> scanResult = redisService.scan(cursor, params);
-        //scan.getStringCursor() 存在 且不是 0 的时候，一直移动游标获取
-//        List<String> list = new ArrayList<>();
-//        while (null != scanResult.getCursor()) {
-//            //封装扫描的结果
-//            list.addAll(scanResult.getResult());
-//            cursor = scanResult.getCursor();
-//            if (!"0".equals(cursor)) {
-//                scanResult = redisService.scan(cursor, params);
-//            } else {
-//                break;
-//            }
-//        }
-        List<String> list = new ArrayList<>();
-        //获取当前游标值
-        cursor = scanResult.getCursor();
-        //取得本轮scan的结果
-        List<String> results = scanResult.getResult();
-        if (results != null && results.size() > 0) {
-            list.addAll(results);
-        }
-        // 如果游标值为0，表示已经遍历完所有键值对
-        while (!"0".equals(cursor)) {
-            // 更新游标并继续遍历下⼀轮
-            scanResult = redisService.scan(cursor, params);
-            cursor = scanResult.getCursor();
-            results = scanResult.getResult();
-            if (results != null && results.size() > 0) {
-                list.addAll(results);
-            }
-            long timeOut = DateUtil.between(startTime, new Date(), DateUnit.SECOND);
-            if (StringUtils.isBlank(cursor)) {
-                log.info("cursor == null");
-                cursor = "0";
-            }
-            if (timeOut >= 10) {
-                log.info("redis scan timeOut 10s");
-                cursor = "0";
-            }
-        }
-        return list;
-    }
 
+    /**
+     * 按模式删除时每累积这么多个key执行一次删除
+     */
+    private static final int DELETE_PATTERN_BATCH = 500;
+
+    @Resource(name = "redisKeyScanner")
+    private RedisKeyScanner redisKeyScanner;
+
+    @Resource(name = "redisPipelineExecutor")
+    private RedisPipelineExecutor redisPipelineExecutor;
+
+    @Resource(name = "redisScriptRegistry")
+    private RedisScriptRegistry redisScriptRegistry;
 
     @Override
     public boolean existsKey(final Object key) {
@@ -128,47 +92,37 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
 
     @Override
     public long deletePattern(final Object pattern, final Integer count) {
-        Set<Object> keys = scan(String.valueOf(pattern), count);
-        if ((keys != null ? keys.size() : 0) > 0) {
-//            return redisTemplate.delete(keys);
-            return delete(keys);
-        } else {
-            return 0;
+        long size = 0;
+        Set<Object> deleteKeys = new HashSet<>();
+        // 边扫描边删除，不在内存中累积全部匹配的key
+        try (KeyScanCursor cursor = scanCursor(wholePattern(String.valueOf(pattern), count))) {
+            while (cursor.hasNext()) {
+                deleteKeys.add(cursor.next());
+                if (deleteKeys.size() >= DELETE_PATTERN_BATCH) {
+                    size = size + delete(deleteKeys);
+                    deleteKeys.clear();
+                }
+            }
         }
+        if (deleteKeys.size() > 0) {
+            size = size + delete(deleteKeys);
+        }
+        return size;
     }
 
     @Override
     public void delete(final String[] keys) {
-        for (String key : keys) {
-            delete(key);
-        }
+        unlink(Arrays.asList(keys));
     }
 
     @Override
     public long delete(final Set keys) {
-//        return redisTemplate.delete(keys);
-        long size = 0;
-        Set<Object> deleteKeys = new HashSet<>();
-        for (Object key : keys) {
-            deleteKeys.add(key);
-            if (deleteKeys.size() >= 10) {
-                Long count = redisTemplate.delete(deleteKeys);
-                if (count == null) {
-                    count = 0L;
-                }
-                size = size + count;
-                deleteKeys.clear();
-            }
-        }
-        if (deleteKeys.size() > 0) {
-            Long count = redisTemplate.delete(deleteKeys);
-            if (count == null) {
-                count = 0L;
-            }
-            size = size + count;
-            deleteKeys.clear();
-        }
-        return size;
+        return unlink(keys);
+    }
+
+    @Override
+    public long unlink(Collection<?> keys) {
+        return redisPipelineExecutor.unlink(keys);
     }
 
     @Override
@@ -189,8 +143,7 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
         boolean result = false;
         try {
             ValueOperations<Object, Object> operations = redisTemplate.opsForValue();
-            operations.set(key, value);
-            redisTemplate.expire(key, expireTime, TimeUnit.SECONDS);
+            operations.set(key, value, expireTime, TimeUnit.SECONDS);
             result = true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -312,12 +265,11 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
 
     @Override
     public void lLeftPush(Object k, Object v, boolean bool) {
-        ListOperations<Object, Object> list = redisTemplate.opsForList();
-        Long size = list.size(k);
-        if (bool && size != null) {
-            list.remove(k, size, v);
+        if (bool) {
+            redisScriptRegistry.execute(RedisScriptRegistry.LIST_LEFT_PUSH_UNIQUE, Collections.singletonList(k), v);
+        } else {
+            lLeftPush(k, v);
         }
-        list.leftPush(k, v);
     }
 
     @Override
@@ -328,12 +280,11 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
 
     @Override
     public void lRightPush(Object k, Object v, boolean bool) {
-        ListOperations<Object, Object> list = redisTemplate.opsForList();
-        Long size = list.size(k);
-        if (bool && size != null) {
-            list.remove(k, size, v);
+        if (bool) {
+            redisScriptRegistry.execute(RedisScriptRegistry.LIST_RIGHT_PUSH_UNIQUE, Collections.singletonList(k), v);
+        } else {
+            lRightPush(k, v);
         }
-        list.rightPush(k, v);
     }
 
     @Override
@@ -377,12 +328,9 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
     @Override
     public long lRemove(Object k, Object v) {
         ListOperations<Object, Object> list = redisTemplate.opsForList();
-        Long count = list.size(k);
-        if (count != null) {
-            Long size = list.remove(k, count, v);
-            return size == null ? 0 : size;
-        }
-        return 0L;
+        // count 为 0 时删除所有等于 v 的元素
+        Long size = list.remove(k, 0, v);
+        return size == null ? 0 : size;
     }
 
     @Override
@@ -445,78 +393,54 @@ public class RedisDaoImpl extends AbstractBaseRedisDao<Object, Object> implement
      */
     @Override
     public Set<Object> scan(String matchKey, Integer count) {
-        return null;
-//        NacosBaseConfig config = SpringUtil.getBean(NacosBaseConfig.class);
-//        Integer scanLine;
-//        if (count == null || count == 0) {
-//            scanLine = config.getScanLine();
-//        } else {
-//            scanLine = count;
-//        }
-//        int useScan = config.getScanCommandIsUsed();
-//        if ("standalone".equals(redisMode)) {
-//            if (useScan == USE_SCAN_COMMAND) {
-//                return redisTemplate.execute((RedisCallback<Set<Object>>) connection -> {
-//                    Set<Object> keysTmp = new HashSet<>();
-//                    Cursor<byte[]> cursor = connection.scan(ScanOptions.scanOptions().match(matchKey).count(scanLine).build());
-//                    while (cursor.hasNext()) {
-//                        keysTmp.add(new String(cursor.next()));
-//                    }
-//                    return keysTmp;
-//                });
-//            } else {
-//                return redisTemplate.keys(matchKey);
-//            }
-//        } else {
-//            List<String> list = new ArrayList<>();
-//            RedisClusterConnection redisClusterConnection = Objects.requireNonNull(redisTemplate.getConnectionFactory()).getClusterConnection();
-//            //这里是获取edispool的另外一种方式与上边的pipline可以对比下，两种方式都可以实现
-//            Map<String, JedisPool> clusterNodes = ((JedisCluster) redisClusterConnection.getNativeConnection()).getClusterNodes();
-//            for (Map.Entry<String, JedisPool> entry : clusterNodes.entrySet()) {
-//                //获取单个的jedis对象
-//                JedisPool jedisPool = entry.getValue();
-//                Jedis jedis = jedisPool.getResource();
-//                // 判断非从节点(因为若主从复制，从节点会跟随主节点的变化而变化)，此处要使用主节点从主节点获取数据
-//                try {
-//                    if (!jedis.info("replication").contains("role:slave")) {
-//                        Collection<String> keys;
-//                        if (useScan == USE_SCAN_COMMAND) {
-//                            keys = getScanResult(jedis, matchKey, scanLine);
-//                        } else {
-//                            keys = jedis.keys(matchKey);
-//                        }
-//                        if (!keys.isEmpty()) {
-//                            Map<Integer, List<String>> map = new HashMap<>(8);
-//                            //接下来的循环不是多余的，需要注意
-//                            for (String key : keys) {
-//                                // cluster模式执行多key操作的时候，这些key必须在同一个slot上，不然会报:JedisDataException:
-//                                int slot = JedisClusterCRC16.getSlot(key);
-//                                // 按slot将key分组，相同slot的key一起提交
-//                                if (map.containsKey(slot)) {
-//                                    map.get(slot).add(key);
-//                                } else {
-//                                    List<String> list1 = new ArrayList<>();
-//                                    list1.add(key);
-//                                    map.put(slot, list1);
-//                                }
-//                            }
-//                            for (Map.Entry<Integer, List<String>> integerListEntry : map.entrySet()) {
-//                                list.addAll(integerListEntry.getValue());
-//                            }
-//                        }
-//                    }
-//                } catch (Exception e) {
-//                    log.error("redis error:" + e);
-//                } finally {
-//                    try {
-//                        jedisPool.returnResource(jedis);
-//                    } catch (Exception e) {
-//                        log.error("jedisPool.returnResource error:" + e);
-//                    }
-//                }
-//            }
-//            return new HashSet<>(list);
-//        }
+        Set<Object> keys = new HashSet<>();
+        try (KeyScanCursor cursor = scanCursor(wholePattern(matchKey, count))) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 需要处理全部匹配key的扫描不受 peach.redis.scan.timeout 与 max-keys 限制，避免返回不完整的结果
+     */
+    private static KeyScanOptions wholePattern(String pattern, Integer count) {
+        return KeyScanOptions.match(pattern).count(count).limit(0).timeout(Duration.ZERO);
+    }
+
+    @Override
+    public KeyScanCursor scanCursor(KeyScanOptions options) {
+        return redisKeyScanner.scan(options);
+    }
+
+    @Override
+    public Stream<String> scanStream(KeyScanOptions options) {
+        return redisKeyScanner.scan(options).stream();
+    }
+
+    @Override
+    public List<Object> pipeline(Consumer<RedisBatch> ops) {
+        RedisBatch batch = redisPipelineExecutor.newBatch();
+        ops.accept(batch);
+        return redisPipelineExecutor.execute(batch);
+    }
+
+    @Override
+    public CompletableFuture<List<Object>> pipelineAsync(Consumer<RedisBatch> ops) {
+        RedisBatch batch = redisPipelineExecutor.newBatch();
+        ops.accept(batch);
+        return redisPipelineExecutor.executeAsync(batch);
+    }
+
+    @Override
+    public <T> T executeScript(String name, List<?> keys, Object... args) {
+        return redisScriptRegistry.execute(name, keys, args);
+    }
+
+    @Override
+    public List<RedisClusterNode> clusterMasterNodes() {
+        return redisKeyScanner.masterNodes();
     }
 
     @Override
@@ -0,0 +1,145 @@
+package com.peach.redis.common.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/09 11:00
+ * @Description 基于 SCAN 游标的 key 扫描
+ * 集群模式下每个主节点一个扫描任务并行执行，单机与哨兵模式下只扫描当前节点；
+ * 扫描任务在固定线程数的线程池中执行，每个任务使用独立的连接，结果通过 {@link KeyScanCursor} 的预取队列交给调用方
+ */
+@Slf4j
+public class RedisKeyScanner implements DisposableBean {
+
+    private final RedisTemplate<?, ?> redisTemplate;
+
+    private final RedisScanProperties properties;
+
+    private final ThreadPoolExecutor executor;
+
+    public RedisKeyScanner(RedisTemplate<?, ?> redisTemplate, RedisScanProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        int threads = Math.max(1, properties.getParallelism());
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "redis-key-scan-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 开始扫描匹配的key，扫描在后台线程执行，返回的游标使用完毕必须关闭
+     * @param options 扫描参数
+     * @return
+     */
+    public KeyScanCursor scan(KeyScanOptions options) {
+        ScanOptions scanOptions = ScanOptions.scanOptions()
+                .match(options.getPattern())
+                .count(options.countOr(Math.max(1, properties.getCount())))
+                .build();
+        List<RedisClusterNode> nodes = masterNodes();
+        int tasks = nodes.isEmpty() ? 1 : nodes.size();
+        KeyScanCursor cursor = new KeyScanCursor(options.getPattern(),
+                options.prefetchOr(Math.max(1, properties.getPrefetch())),
+                tasks,
+                Math.max(0, options.maxKeysOr(properties.getMaxKeys())),
+                toNanos(options.timeoutOr(properties.getTimeout())),
+                toNanos(properties.getIdleTimeout()));
+        if (nodes.isEmpty()) {
+            submit(cursor, null, scanOptions);
+        } else {
+            for (RedisClusterNode node : nodes) {
+                submit(cursor, node, scanOptions);
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * 集群模式下的主节点列表，非集群模式返回空列表
+     * @return
+     */
+    public List<RedisClusterNode> masterNodes() {
+        List<RedisClusterNode> nodes = redisTemplate.execute((RedisCallback<List<RedisClusterNode>>) connection -> {
+            if (!(connection instanceof RedisClusterConnection)) {
+                return Collections.emptyList();
+            }
+            List<RedisClusterNode> masters = new ArrayList<>();
+            for (RedisClusterNode node : ((RedisClusterConnection) connection).clusterGetNodes()) {
+                if (node.isMaster()) {
+                    masters.add(node);
+                }
+            }
+            return masters;
+        });
+        return nodes == null ? Collections.emptyList() : nodes;
+    }
+
+    private void submit(KeyScanCursor cursor, RedisClusterNode node, ScanOptions options) {
+        try {
+            executor.execute(() -> run(cursor, node, options));
+        } catch (RejectedExecutionException e) {
+            cursor.finished(e);
+        }
+    }
+
+    private void run(KeyScanCursor cursor, RedisClusterNode node, ScanOptions options) {
+        Throwable error = null;
+        try {
+            if (cursor.isActive()) {
+                redisTemplate.execute((RedisCallback<Object>) connection -> {
+                    Cursor<byte[]> keys = node == null ? connection.scan(options)
+                            : ((RedisClusterConnection) connection).scan(node, options);
+                    try {
+                        while (cursor.isActive() && keys.hasNext()) {
+                            if (!cursor.offer(new String(keys.next(), StandardCharsets.UTF_8))) {
+                                break;
+                            }
+                        }
+                    } finally {
+                        keys.close();
+                    }
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("redis scan failed, the pattern is : {}, the node is : {}", options.getPattern(), node, e);
+            error = e;
+        } finally {
+            cursor.finished(error);
+        }
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration == null || duration.isNegative() ? 0 : duration.toNanos();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
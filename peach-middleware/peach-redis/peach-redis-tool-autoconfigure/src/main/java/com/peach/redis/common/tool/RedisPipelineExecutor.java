@@ -0,0 +1,402 @@
+package com.peach.redis.common.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.ClusterRedirectException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.jedis.JedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/12 11:00
+ * @Description 执行 {@link RedisBatch} 中记录的命令
+ * 单机与哨兵模式下按记录顺序通过 pipeline 发送；集群模式下按 slot 分组，同一节点上的 slot 合并到该节点的一个 pipeline，
+ * jedis 的集群连接不支持 pipeline，因此直接使用各节点连接池中的连接发送。
+ * 扩缩容迁移 slot 期间收到 MOVED/ASK 的命令会逐条通过集群连接重新执行，其他失败的命令不重试；
+ * 同时提供按 slot 分组、pipeline 发送的批量 UNLINK
+ */
+@Slf4j
+public class RedisPipelineExecutor implements DisposableBean {
+
+    private final RedisTemplate<?, ?> redisTemplate;
+
+    private final int batchSize;
+
+    private final int unlinkChunk;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 集群模式下向各主节点并行发送 pipeline，任务只做网络读写，不会再提交任务，使用无界队列
+     */
+    private final ThreadPoolExecutor nodeExecutor;
+
+    private volatile Boolean clusterMode;
+
+    public RedisPipelineExecutor(RedisTemplate<?, ?> redisTemplate, RedisPipelineProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        int threads = Math.max(1, properties.getAsyncThreads());
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getAsyncQueueCapacity())),
+                r -> {
+                    Thread thread = new Thread(r, "redis-pipeline-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.unlinkChunk = Math.max(1, properties.getUnlinkChunk());
+        int nodeThreads = Math.max(1, properties.getParallelism());
+        AtomicInteger nodeIndex = new AtomicInteger();
+        this.nodeExecutor = new ThreadPoolExecutor(nodeThreads, nodeThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "redis-pipeline-node-" + nodeIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.nodeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 使用 redisTemplate 的序列化方式创建批量操作
+     * @return
+     */
+    public RedisBatch newBatch() {
+        return newBatch(redisTemplate);
+    }
+
+    /**
+     * 使用指定 redisTemplate 的序列化方式创建批量操作，用于 key 或 value 序列化方式不同的 redisTemplate
+     * @param template 提供序列化方式的 redisTemplate
+     * @return
+     */
+    public RedisBatch newBatch(RedisTemplate<?, ?> template) {
+        return new RedisBatch(template.getKeySerializer(), template.getValueSerializer(),
+                template.getHashKeySerializer(), template.getHashValueSerializer());
+    }
+
+    /**
+     * 在当前线程执行
+     * @param batch 批量操作
+     * @return 按记录顺序的命令结果
+     * @throws RedisPipelineException 存在执行失败的命令，异常中的结果列表在失败的位置为对应的异常
+     */
+    public List<Object> execute(RedisBatch batch) {
+        List<RedisBatch.Command> commands = batch.commands();
+        if (commands.isEmpty()) {
+            return new ArrayList<>();
+        }
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            if (connection instanceof RedisClusterConnection && connection.getNativeConnection() instanceof JedisCluster) {
+                executeOnJedisCluster((RedisClusterConnection) connection, (JedisCluster) connection.getNativeConnection(), commands);
+            } else if (connection instanceof RedisClusterConnection) {
+                executePipelined(connection, groupBySlot(commands).values());
+            } else {
+                executePipelined(connection, Collections.singletonList(commands));
+            }
+            return null;
+        });
+        return results(commands);
+    }
+
+    /**
+     * 在异步线程执行
+     * @param batch 批量操作
+     * @return 完成时为按记录顺序的命令结果，排队数达到上限或存在失败的命令时异常完成
+     */
+    public CompletableFuture<List<Object>> executeAsync(RedisBatch batch) {
+        try {
+            return CompletableFuture.supplyAsync(() -> execute(batch), executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<List<Object>> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * 通过 UNLINK 批量删除key，由 redis 在后台线程释放内存；
+     * 集群模式下按 slot 分组，每条 UNLINK 最多携带 unlinkChunk 个key，各主节点的 pipeline 并行发送
+     * @param keys 缓存key，byte[] 类型的key直接使用，其他按 redisTemplate 的 key 序列化方式编码
+     * @return 实际删除的key个数
+     * @throws RedisSystemException 存在删除失败的命令，异常信息中包含已删除的个数
+     */
+    public long unlink(Collection<?> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        RedisBatch batch = newBatch();
+        List<RedisBatchResult<Long>> results = new ArrayList<>();
+        if (isClusterMode()) {
+            Map<Integer, List<byte[]>> slots = new HashMap<>();
+            for (Object key : keys) {
+                byte[] rawKey = batch.rawKey(key);
+                slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(rawKey), slot -> new ArrayList<>()).add(rawKey);
+            }
+            for (List<byte[]> slotKeys : slots.values()) {
+                unlink(batch, slotKeys, results);
+            }
+        } else {
+            List<byte[]> rawKeys = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                rawKeys.add(batch.rawKey(key));
+            }
+            unlink(batch, rawKeys, results);
+        }
+        try {
+            execute(batch);
+        } catch (RedisPipelineException e) {
+            // 逐条统计已成功的删除数
+        }
+        long count = 0;
+        Throwable error = null;
+        for (RedisBatchResult<Long> result : results) {
+            if (result.isSuccess()) {
+                count += result.get();
+            } else if (error == null) {
+                error = result.getError();
+            }
+        }
+        if (error != null) {
+            throw new RedisSystemException("redis unlink failed, deleted keys : " + count, error);
+        }
+        return count;
+    }
+
+    private void unlink(RedisBatch batch, List<byte[]> rawKeys, List<RedisBatchResult<Long>> results) {
+        for (int i = 0; i < rawKeys.size(); i += unlinkChunk) {
+            results.add(batch.unlink(rawKeys.subList(i, Math.min(i + unlinkChunk, rawKeys.size()))));
+        }
+    }
+
+    private boolean isClusterMode() {
+        Boolean cluster = clusterMode;
+        if (cluster == null) {
+            cluster = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection instanceof RedisClusterConnection);
+            clusterMode = cluster;
+        }
+        return Boolean.TRUE.equals(cluster);
+    }
+
+    private void executeOnJedisCluster(RedisClusterConnection connection, JedisCluster cluster, List<RedisBatch.Command> commands) {
+        Map<String, NodePipeline> nodes = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Integer, List<RedisBatch.Command>> entry : groupBySlot(commands).entrySet()) {
+                try {
+                    Jedis jedis = cluster.getConnectionFromSlot(entry.getKey());
+                    String address = jedis.getClient().getHost() + ":" + jedis.getClient().getPort();
+                    NodePipeline node = nodes.get(address);
+                    if (node == null) {
+                        nodes.put(address, new NodePipeline(jedis, entry.getValue()));
+                    } else {
+                        jedis.close();
+                        node.slots.add(entry.getValue());
+                    }
+                } catch (RuntimeException e) {
+                    fail(entry.getValue(), e);
+                }
+            }
+            executeOnNodes(new ArrayList<>(nodes.values()));
+        } finally {
+            // JedisConnection 未关联连接池，关闭时会断开连接，这里直接将连接归还给节点的连接池
+            for (NodePipeline node : nodes.values()) {
+                node.jedis.close();
+            }
+        }
+        int redirected = 0;
+        for (RedisBatch.Command command : commands) {
+            if (isRedirect(command.result.getError())) {
+                redirected++;
+                try {
+                    command.result.complete(command.execute(connection));
+                } catch (RuntimeException e) {
+                    command.result.fail(e);
+                }
+            }
+        }
+        if (redirected > 0) {
+            log.warn("redis pipeline redirected {} commands, retried through the cluster connection", redirected);
+        }
+    }
+
+    /**
+     * 各节点的 pipeline 并行发送，当前线程发送第一个节点并等待其他节点完成
+     */
+    private void executeOnNodes(List<NodePipeline> nodes) {
+        List<Future<?>> futures = new ArrayList<>(nodes.size());
+        for (int i = 1; i < nodes.size(); i++) {
+            NodePipeline node = nodes.get(i);
+            futures.add(nodeExecutor.submit(() -> executePipelined(node.connection, node.slots)));
+        }
+        if (!nodes.isEmpty()) {
+            executePipelined(nodes.get(0).connection, nodes.get(0).slots);
+        }
+        // 节点连接在全部任务结束后才归还连接池，被中断时仍等待任务完成
+        boolean interrupted = false;
+        for (int i = 0; i < futures.size(); ) {
+            try {
+                futures.get(i).get();
+                i++;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                for (List<RedisBatch.Command> slot : nodes.get(i + 1).slots) {
+                    fail(slot, e.getCause());
+                }
+                i++;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 将各组命令依次写入 pipeline，每累积 batchSize 条命令发送一次
+     */
+    private void executePipelined(RedisConnection connection, Iterable<List<RedisBatch.Command>> groups) {
+        List<RedisBatch.Command> chunk = new ArrayList<>(batchSize);
+        for (List<RedisBatch.Command> group : groups) {
+            for (RedisBatch.Command command : group) {
+                chunk.add(command);
+                if (chunk.size() >= batchSize) {
+                    sync(connection, chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sync(connection, chunk);
+        }
+    }
+
+    private void sync(RedisConnection connection, List<RedisBatch.Command> chunk) {
+        List<Object> results;
+        connection.openPipeline();
+        try {
+            for (RedisBatch.Command command : chunk) {
+                command.execute(connection);
+            }
+        } catch (RuntimeException e) {
+            try {
+                connection.closePipeline();
+            } catch (RuntimeException ignored) {
+                // 以写入命令时的异常为准
+            }
+            fail(chunk, e);
+            return;
+        }
+        try {
+            results = connection.closePipeline();
+        } catch (RedisPipelineException e) {
+            results = e.getPipelineResult();
+        } catch (RuntimeException e) {
+            fail(chunk, e);
+            return;
+        }
+        if (results == null || results.size() != chunk.size()) {
+            fail(chunk, new IllegalStateException("redis pipeline returned " + (results == null ? 0 : results.size())
+                    + " results for " + chunk.size() + " commands"));
+            return;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            Object result = results.get(i);
+            if (result instanceof Throwable) {
+                chunk.get(i).result.fail((Throwable) result);
+            } else {
+                chunk.get(i).result.complete(result);
+            }
+        }
+    }
+
+    private static Map<Integer, List<RedisBatch.Command>> groupBySlot(List<RedisBatch.Command> commands) {
+        Map<Integer, List<RedisBatch.Command>> slots = new LinkedHashMap<>();
+        for (RedisBatch.Command command : commands) {
+            slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(command.key), slot -> new ArrayList<>()).add(command);
+        }
+        return slots;
+    }
+
+    private static boolean isRedirect(Throwable error) {
+        return error instanceof ClusterRedirectException
+                || (error != null && error.getCause() instanceof JedisRedirectionException);
+    }
+
+    private static void fail(List<RedisBatch.Command> commands, Throwable error) {
+        for (RedisBatch.Command command : commands) {
+            command.result.fail(error);
+        }
+    }
+
+    private static List<Object> results(List<RedisBatch.Command> commands) {
+        List<Object> results = new ArrayList<>(commands.size());
+        Throwable error = null;
+        for (RedisBatch.Command command : commands) {
+            if (command.result.isSuccess()) {
+                results.add(command.result.rawValue());
+            } else {
+                Throwable cause = command.result.isDone() ? command.result.getError()
+                        : new IllegalStateException("redis pipeline command was not executed");
+                results.add(cause);
+                error = error == null ? cause : error;
+            }
+        }
+        if (error != null) {
+            throw new RedisPipelineException("redis pipeline has failed commands", error, results);
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        nodeExecutor.shutdownNow();
+    }
+
+    /**
+     * 集群中单个节点的 pipeline
+     */
+    private static class NodePipeline {
+
+        final Jedis jedis;
+
+        final JedisConnection connection;
+
+        final List<List<RedisBatch.Command>> slots = new ArrayList<>();
+
+        NodePipeline(Jedis jedis, List<RedisBatch.Command> commands) {
+            this.jedis = jedis;
+            this.connection = new JedisConnection(jedis);
+            this.slots.add(commands);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.peach.redis.common.tool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/12 10:30
+ * @Description redis 批量操作配置
+ */
+@Data
+@ConfigurationProperties(prefix = "peach.redis.pipeline")
+public class RedisPipelineProperties {
+
+    /**
+     * 单次 pipeline 最多发送的命令数，超出时分多次发送，限制客户端与 redis 缓冲的请求与响应大小
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 批量删除时单条 UNLINK 命令最多携带的key个数
+     */
+    private int unlinkChunk = 100;
+
+    /**
+     * 集群模式下并行向各主节点发送 pipeline 的线程数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 异步执行的线程数
+     */
+    private int asyncThreads = 4;
+
+    /**
+     * 异步执行排队的批量操作上限，超出时返回失败的 future
+     */
+    private int asyncQueueCapacity = 1024;
+}
@@ -0,0 +1,47 @@
+package com.peach.redis.common.tool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/09 10:00
+ * @Description redis key 扫描配置，单次扫描可通过 {@link KeyScanOptions} 覆盖
+ */
+@Data
+@ConfigurationProperties(prefix = "peach.redis.scan")
+public class RedisScanProperties {
+
+    /**
+     * 每次 SCAN 命令的 COUNT 参数
+     */
+    private int count = 1000;
+
+    /**
+     * 预取队列容量，扫描线程领先调用方最多这么多个key，队列满时暂停扫描
+     */
+    private int prefetch = 1000;
+
+    /**
+     * 扫描线程数，集群模式下各主节点并行扫描，超出的节点排队执行
+     */
+    private int parallelism = 4;
+
+    /**
+     * 单次扫描的最长耗时，超时后停止扫描并结束迭代，为 0 时不限制，不作用于返回或删除全部匹配key的 scan 与 deletePattern
+     */
+    private Duration timeout = Duration.ZERO;
+
+    /**
+     * 单次扫描最多返回的key个数，为 0 时不限制，不作用于 scan 与 deletePattern
+     */
+    private long maxKeys = 0;
+
+    /**
+     * 调用方超过该时长未读取且未关闭游标时，视为已放弃并停止扫描，释放扫描线程与连接
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+}
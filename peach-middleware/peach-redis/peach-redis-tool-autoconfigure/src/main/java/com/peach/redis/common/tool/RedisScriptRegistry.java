@@ -0,0 +1,101 @@
+package com.peach.redis.common.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @Author Mr Shu
+ * @Version 1.0.0
+ * @CreateTime 2026/02/16 10:00
+ * @Description 按名称注册的 lua 脚本
+ * 脚本的 SHA1 在注册时计算一次，执行时先发送 EVALSHA，redis 返回 NOSCRIPT 时改用 EVAL 发送脚本内容，
+ * redis 会缓存 EVAL 执行过的脚本，之后的调用只发送 SHA1。
+ * 脚本参数与返回值使用 redisTemplate 的 value 序列化方式，key 使用 key 序列化方式；
+ * 集群模式下一个脚本访问的所有key必须位于同一 slot
+ */
+@Slf4j
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class RedisScriptRegistry {
+
+    /**
+     * 删除列表中所有等于 ARGV[1] 的元素后从左侧添加，返回添加后的列表长度
+     */
+    public static final String LIST_LEFT_PUSH_UNIQUE = "list-left-push-unique";
+
+    /**
+     * 删除列表中所有等于 ARGV[1] 的元素后从右侧添加，返回添加后的列表长度
+     */
+    public static final String LIST_RIGHT_PUSH_UNIQUE = "list-right-push-unique";
+
+    private final RedisTemplate redisTemplate;
+
+    private final ConcurrentMap<String, RedisScript<?>> scripts = new ConcurrentHashMap<>();
+
+    public RedisScriptRegistry(RedisTemplate<?, ?> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        register(LIST_LEFT_PUSH_UNIQUE,
+                "redis.call('LREM', KEYS[1], 0, ARGV[1]) "
+                        + "return redis.call('LPUSH', KEYS[1], ARGV[1])", Long.class);
+        register(LIST_RIGHT_PUSH_UNIQUE,
+                "redis.call('LREM', KEYS[1], 0, ARGV[1]) "
+                        + "return redis.call('RPUSH', KEYS[1], ARGV[1])", Long.class);
+    }
+
+    /**
+     * 注册脚本，同名脚本会被替换
+     * @param name 脚本名称
+     * @param scriptText 脚本内容
+     * @param resultType 返回值类型，为 null 时不读取返回值
+     * @return 注册的脚本
+     */
+    public <T> RedisScript<T> register(String name, String scriptText, Class<T> resultType) {
+        RedisScript<T> script = new DefaultRedisScript<>(scriptText, resultType);
+        // 注册时计算 SHA1，之后执行时直接使用
+        script.getSha1();
+        RedisScript<?> previous = scripts.put(name, script);
+        if (previous != null && !previous.getSha1().equals(script.getSha1())) {
+            log.info("redis script replaced, the name is : {}", name);
+        }
+        return script;
+    }
+
+    /**
+     * @param name 脚本名称
+     * @return 脚本
+     * @throws IllegalArgumentException 脚本未注册
+     */
+    public <T> RedisScript<T> get(String name) {
+        RedisScript<T> script = (RedisScript<T>) scripts.get(name);
+        if (script == null) {
+            throw new IllegalArgumentException("redis script is not registered, the name is : " + name);
+        }
+        return script;
+    }
+
+    public boolean contains(String name) {
+        return scripts.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return scripts.keySet();
+    }
+
+    /**
+     * 执行已注册的脚本
+     * @param name 脚本名称
+     * @param keys 脚本访问的key
+     * @param args 脚本参数
+     * @return 脚本返回值
+     */
+    public <T> T execute(String name, List<?> keys, Object... args) {
+        RedisScript<T> script = get(name);
+        return (T) redisTemplate.execute(script, keys, args);
+    }
+}